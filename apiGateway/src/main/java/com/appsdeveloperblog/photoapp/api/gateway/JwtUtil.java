@@ -37,8 +37,11 @@ public class JwtUtil {
     }
 
     public String extractSubject(String token) {
-        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
-        return claims.getSubject();
+        return extractClaims(token).getSubject();
+    }
+
+    public Claims extractClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload(); // Valide la signature et l'expiration
     }
 
     /*public boolean isTokenValid(String token, String expectedSubject) {
@@ -0,0 +1,10 @@
+package com.appsdeveloperblog.photoapp.api.gateway.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Réponse complète de la requête meneuse, rejouée telle quelle aux requêtes identiques arrivées pendant son vol.
+ */
+public record CoalescedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
@@ -0,0 +1,106 @@
+package com.appsdeveloperblog.photoapp.api.gateway.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requêtes GET en vol, indexées par (route, chemin, query, sujet, Accept). Une entrée n'existe que le temps
+ * de l'appel amont : rien n'est servi après la fin de la requête meneuse, donc pas de donnée périmée.
+ * Métriques : gateway.coalescing.requests{route,role} et gateway.coalescing.fan-in{route}
+ * (requêtes suiveuses servies par chaque appel amont).
+ */
+@Component
+public class InFlightRequestRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<CoalescingKey, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, RouteMeters> metersByRoute = new ConcurrentHashMap<>();
+
+    public InFlightRequestRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.in-flight", flights, Map::size)
+                .description("Appels amont partagés en cours")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return le vol existant à rejoindre, ou null si l'appelant devient meneur du vol {@code candidate}
+     */
+    public Flight join(CoalescingKey key, Flight candidate) {
+        Flight existing = flights.putIfAbsent(key, candidate);
+        RouteMeters meters = meters(key.routeId());
+        if (existing == null) {
+            meters.leaders().increment();
+            return null;
+        }
+        existing.followers().incrementAndGet();
+        meters.followers().increment();
+        return existing;
+    }
+
+    // Retiré avant publication : un suiveur ne peut plus rejoindre un vol dont la réponse est connue
+    public void complete(CoalescingKey key, Flight flight, CoalescedResponse response) {
+        flights.remove(key, flight);
+        meters(key.routeId()).fanIn().record(flight.followers().get());
+        flight.result().tryEmitValue(response);
+    }
+
+    // Meneur en échec, annulé ou corps trop gros : les suiveurs appellent l'amont eux-mêmes
+    public void abandon(CoalescingKey key, Flight flight) {
+        flights.remove(key, flight);
+        flight.result().tryEmitEmpty();
+    }
+
+    public void fallback(String routeId) {
+        meters(routeId).fallbacks().increment();
+    }
+
+    private RouteMeters meters(String routeId) {
+        RouteMeters meters = metersByRoute.get(routeId);
+        if (meters == null) {
+            meters = metersByRoute.computeIfAbsent(routeId, route -> new RouteMeters(
+                    counter(route, "leader"),
+                    counter(route, "follower"),
+                    counter(route, "fallback"),
+                    DistributionSummary.builder("gateway.coalescing.fan-in")
+                            .description("Requêtes suiveuses servies par un même appel amont")
+                            .tag("route", route)
+                            .register(meterRegistry)));
+        }
+        return meters;
+    }
+
+    private Counter counter(String routeId, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .tag("route", routeId)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    public record CoalescingKey(String routeId, String path, String query, String subject, String accept) {
+    }
+
+    public record Flight(Sinks.One<CoalescedResponse> result, AtomicInteger followers) {
+
+        public static Flight create() {
+            return new Flight(Sinks.one(), new AtomicInteger());
+        }
+
+        // Vide si le meneur n'a pas pu fournir de réponse à rejouer
+        public Mono<CoalescedResponse> response() {
+            return result.asMono();
+        }
+    }
+
+    private record RouteMeters(Counter leaders, Counter followers, Counter fallbacks, DistributionSummary fanIn) {
+    }
+}
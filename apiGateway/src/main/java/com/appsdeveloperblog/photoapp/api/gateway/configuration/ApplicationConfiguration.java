@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "application")
 @Data
@@ -12,6 +14,11 @@ import org.springframework.context.annotation.Configuration;
 public class ApplicationConfiguration {
 
     private Token token;
+    private TokenCache tokenCache = new TokenCache();
+    private Identity identity = new Identity();
+    private AccessLog accessLog = new AccessLog();
+    private RateLimit rateLimit = new RateLimit();
+    private Hedging hedging = new Hedging();
     private String loginUrlPath;
 
     @Data
@@ -19,4 +26,41 @@ public class ApplicationConfiguration {
         private long expirationTime;
         private String secret;
     }
+
+    @Data
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class Identity {
+        private boolean enabled = false;
+        private String secret;
+    }
+
+    @Data
+    public static class AccessLog {
+        private boolean enabled = true;
+        private double sampleRate = 0.01;
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        // Lus au démarrage par logback-spring.xml (springProperty) : un changement demande un redémarrage
+        private String file = "logs/api-gateway-access.log";
+        private int queueSize = 8192;
+    }
+
+    @Data
+    public static class RateLimit {
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private long maximumKeys = 100_000;
+    }
+
+    @Data
+    public static class Hedging {
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private Duration window = Duration.ofSeconds(10);
+        private int minHedgesPerSecond = 1;
+        private int maxBodyBytes = 1024 * 1024;
+    }
 }
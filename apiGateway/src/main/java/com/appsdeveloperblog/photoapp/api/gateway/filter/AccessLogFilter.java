@@ -0,0 +1,196 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Journal d'accès de la gateway : un enregistrement JSON par échange (route, statut, instance amont,
+ * latence, octets), remplace MyPrefilter, MyPostfilter et les filtres lambda de GlobalFilterConfiguration.
+ * L'échantillonnage est décidé à la fin de l'échange : erreurs et requêtes lentes toujours journalisées,
+ * les autres selon application.access-log.sample-rate. Le logger "gateway.access" passe par un
+ * AsyncAppender non bloquant (logback-spring.xml) : l'event loop ne fait jamais d'I/O de log.
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    public static final String ACCESS_LOGGER = "gateway.access";
+    // Client parti avant la réponse (convention nginx)
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private static final Logger accessLog = LoggerFactory.getLogger(ACCESS_LOGGER);
+
+    private final ApplicationConfiguration applicationConfiguration;
+
+    public AccessLogFilter(ApplicationConfiguration applicationConfiguration) {
+        this.applicationConfiguration = applicationConfiguration;
+    }
+
+    // Englobe tous les autres filtres : la latence couvre l'authentification et le routage
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ApplicationConfiguration.AccessLog config = applicationConfiguration.getAccessLog();
+        if (!config.isEnabled() || !accessLog.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        CountingRequest request = new CountingRequest(exchange.getRequest());
+        CountingResponse response = new CountingResponse(exchange.getResponse());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doOnError(error::set)
+                .doFinally(signal -> complete(exchange, request, response, signal, error.get(),
+                        System.nanoTime() - start, config));
+    }
+
+    private void complete(ServerWebExchange exchange, CountingRequest request, CountingResponse response,
+                          SignalType signal, Throwable error, long elapsedNanos, ApplicationConfiguration.AccessLog config) {
+        int status = status(response.getStatusCode(), signal, error);
+        String reason = sampleReason(status, elapsedNanos, config);
+        if (reason != null) {
+            accessLog.info(record(exchange, request, response, status, elapsedNanos, reason));
+        }
+    }
+
+    static int status(HttpStatusCode statusCode, SignalType signal, Throwable error) {
+        if (signal == SignalType.ON_ERROR) {
+            // Le statut n'est fixé qu'ensuite, par le gestionnaire d'erreurs : on anticipe celui qu'il rendra
+            return error instanceof ResponseStatusException statusException
+                    ? statusException.getStatusCode().value()
+                    : 500;
+        }
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        return statusCode != null ? statusCode.value() : 200;
+    }
+
+    // null : échange non retenu, aucun enregistrement construit
+    private static String sampleReason(int status, long elapsedNanos, ApplicationConfiguration.AccessLog config) {
+        if (status >= 500 && status != CLIENT_CLOSED_REQUEST) {
+            return "error";
+        }
+        if (elapsedNanos >= config.getSlowThreshold().toNanos()) {
+            return "slow";
+        }
+        double rate = config.getSampleRate();
+        if (rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+            return "sample";
+        }
+        return null;
+    }
+
+    private static String record(ServerWebExchange exchange, CountingRequest request, CountingResponse response,
+                                 int status, long elapsedNanos, String reason) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        StringBuilder json = new StringBuilder(256).append('{');
+        field(json, "method", exchange.getRequest().getMethod().name()).append(',');
+        field(json, "path", exchange.getRequest().getPath().value()).append(',');
+        field(json, "route", route != null ? route.getId() : null).append(',');
+        field(json, "upstream", upstream != null && upstream.getHost() != null ? upstream.getHost() + ":" + upstream.getPort() : null).append(',');
+        json.append("\"status\":").append(status).append(',');
+        json.append("\"latencyMs\":").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(',');
+        json.append("\"bytesIn\":").append(request.bytesIn()).append(',');
+        json.append("\"bytesOut\":").append(response.bytesWritten()).append(',');
+        field(json, "sampled", reason);
+        return json.append('}').toString();
+    }
+
+    private static StringBuilder field(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":");
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    // Compte les octets du corps lus en aval (corps chunké, sans Content-Length), sans le mettre en mémoire
+    private static final class CountingRequest extends ServerHttpRequestDecorator {
+
+        private volatile long bytesRead;  // Un seul lecteur : le thread qui consomme le corps
+
+        private CountingRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> bytesRead += buffer.readableByteCount());
+        }
+
+        // Content-Length s'il est annoncé, sinon les octets effectivement lus (0 sans corps)
+        long bytesIn() {
+            long contentLength = getHeaders().getContentLength();
+            return contentLength >= 0 ? contentLength : bytesRead;
+        }
+    }
+
+    // Compte les octets du corps au fil de l'écriture, sans le mettre en mémoire
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+
+        private volatile long bytesWritten;  // Un seul écrivain : le thread qui écrit la réponse
+
+        private CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(buffer -> bytesWritten += buffer.readableByteCount()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part)
+                    .doOnNext(buffer -> bytesWritten += buffer.readableByteCount())));
+        }
+
+        long bytesWritten() {
+            return bytesWritten;
+        }
+    }
+}
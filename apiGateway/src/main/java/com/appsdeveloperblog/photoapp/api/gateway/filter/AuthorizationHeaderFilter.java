@@ -1,10 +1,12 @@
 package com.appsdeveloperblog.photoapp.api.gateway.filter;
 
-import com.appsdeveloperblog.photoapp.api.gateway.JwtUtil;
-import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.api.gateway.security.IdentityHeaderSigner;
+import com.appsdeveloperblog.photoapp.api.gateway.security.VerifiedToken;
+import com.appsdeveloperblog.photoapp.api.gateway.security.VerifiedTokenCache;
 import io.jsonwebtoken.JwtException;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -17,10 +19,18 @@ import reactor.core.publisher.Mono;
 @RefreshScope
 public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory<AuthorizationHeaderFilter.Config> {
 
-    private final ApplicationConfiguration applicationConfiguration;
-    public AuthorizationHeaderFilter(ApplicationConfiguration applicationConfiguration) {
+    // Sujet du JWT vérifié, pour les filtres suivants de la route (contrairement à X-User-Email,
+    // un client ne peut pas le fournir lui-même)
+    public static final String VERIFIED_SUBJECT_ATTR = AuthorizationHeaderFilter.class.getName() + ".subject";
+    // Avant la limitation et le regroupement, qui s'appuient sur le sujet vérifié
+    public static final int ORDER = UserRateLimitFilter.ORDER - 1;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final IdentityHeaderSigner identityHeaderSigner;
+    public AuthorizationHeaderFilter(VerifiedTokenCache verifiedTokenCache, IdentityHeaderSigner identityHeaderSigner) {
         super(Config.class);
-        this.applicationConfiguration = applicationConfiguration;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.identityHeaderSigner = identityHeaderSigner;
     }
 
 
@@ -31,7 +41,7 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory<Auth
     @Override
     public GatewayFilter apply(Config config) {
 
-        return (exchange, chain) -> {
+        return new OrderedGatewayFilter((exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             if (!request.getHeaders().containsKey("Authorization")) {
                 return onError(exchange, "No authorization header", HttpStatus.UNAUTHORIZED);
@@ -42,26 +52,27 @@ public class AuthorizationHeaderFilter extends AbstractGatewayFilterFactory<Auth
             }
             String jwtToken = authorizationHeader.replace("Bearer ", "");
 
-            JwtUtil jwtUtil = new JwtUtil(
-                    applicationConfiguration.getToken().getSecret(),
-                    applicationConfiguration.getToken().getExpirationTime()
-            );
-
-
-            String subject="";
+            VerifiedToken verifiedToken;
             try {
-                subject = jwtUtil.extractSubject(jwtToken); // ⚠️ Valide la signature et expire
+                verifiedToken = verifiedTokenCache.verify(jwtToken); // ⚠️ Valide la signature et expire (ou cache)
             } catch (JwtException e) {
                 return onError(exchange, "Invalid JWT: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
             }
 
-            // Propagation de l'utilisateur courant
+            // Propagation de l'utilisateur courant (l'en-tête d'identité envoyé par le client est toujours ignoré)
             ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Email", subject)
+                    .header("X-User-Email", verifiedToken.subject())
+                    .headers(headers -> {
+                        headers.remove(IdentityHeaderSigner.IDENTITY_HEADER);
+                        if (identityHeaderSigner.isEnabled()) {
+                            headers.set(IdentityHeaderSigner.IDENTITY_HEADER, identityHeaderSigner.sign(verifiedToken));
+                        }
+                    })
                     .build();
 
+            exchange.getAttributes().put(VERIFIED_SUBJECT_ATTR, verifiedToken.subject());
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
-        };
+        }, ORDER);
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String noAuthorizationHader, HttpStatus httpStatus) {
@@ -0,0 +1,337 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.api.gateway.hedging.HedgingRegistry;
+import com.appsdeveloperblog.photoapp.api.gateway.hedging.RouteHedging;
+import com.appsdeveloperblog.photoapp.common.loadbalancer.HedgeGroup;
+import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Requêtes couvertes (hedging) pour les GET d'une route lb:// : si la première tentative n'a pas répondu après
+ * le quantile observé des durées de la route (borné par application.hedging.min-delay / max-delay), une seconde
+ * part vers une autre instance. La première réponse reçue est renvoyée au client, l'autre tentative est annulée.
+ * Les secondes tentatives sont plafonnées par un budget (budgetRatio × requêtes de la fenêtre + un plancher
+ * par seconde) : la charge supplémentaire reste bornée même quand toute la route ralentit.
+ * Seuls les chemins listés dans paths sont couverts ; les autres, les méthodes autres que GET et les routes hors
+ * lb:// suivent la chaîne habituelle.
+ * Le filtre route lui-même la requête, à la place de ReactiveLoadBalancerClientFilter et NettyRoutingFilter :
+ * il s'exécute juste avant le premier (voir ORDER), après RouteToRequestUrlFilter et les filtres de la route,
+ * donc après RequestCoalescingFilter, dont la capture voit passer la réponse écrite ici. Le reste de la chaîne
+ * n'est pas appelé : aucun filtre ordonné après ORDER ne s'applique aux requêtes couvertes.
+ * Le corps de la réponse est lu en entier avant d'être renvoyé, jusqu'à application.hedging.max-body-bytes ;
+ * au-delà, la tentative qui l'a atteint est retenue et son corps relayé au fil de l'eau, sans nouvel appel amont
+ * (gateway.hedge.requests{result=body-too-large}). paths ne doit donc lister que des réponses bornées.
+ * <pre>
+ * - name: HedgedRequestFilter
+ *   args:
+ *     percentile: 0.95                  # quantile servant de délai
+ *     budget-ratio: 0.1                 # part maximale de secondes tentatives
+ *     paths: /api/users/{id:\d+}/albums # PathPattern ; aucun chemin : filtre sans effet
+ * </pre>
+ */
+@Component
+public class HedgedRequestFilter extends AbstractGatewayFilterFactory<HedgedRequestFilter.Config> {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private final HedgingRegistry hedgingRegistry;
+    private final LoadBalancerClientFactory clientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final HttpClientProperties httpClientProperties;
+    private final WebClient webClient;
+    private final int maxBodyBytes;
+
+    public HedgedRequestFilter(HedgingRegistry hedgingRegistry,
+                               LoadBalancerClientFactory clientFactory,
+                               ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                               HttpClientProperties httpClientProperties,
+                               HttpClient httpClient,
+                               ApplicationConfiguration applicationConfiguration) {
+        super(Config.class);
+        this.hedgingRegistry = hedgingRegistry;
+        this.clientFactory = clientFactory;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.httpClientProperties = httpClientProperties;
+        // Même client Netty (pool de connexions, SSL) que le routage standard de la gateway
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.maxBodyBytes = applicationConfiguration.getHedging().getMaxBodyBytes();
+    }
+
+    @Data
+    public static class Config {
+        private double percentile = 0.95;
+        private double budgetRatio = 0.1;
+        private List<String> paths = List.of();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("percentile", "budgetRatio");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> paths = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            // Seuls les GET sans corps sont idempotents et rejouables sans risque
+            if (route == null || !"lb".equals(route.getUri().getScheme())
+                    || request.getMethod() != HttpMethod.GET || request.getHeaders().getContentLength() > 0
+                    || paths.stream().noneMatch(path -> path.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+            String serviceId = route.getUri().getHost();
+            ReactorServiceInstanceLoadBalancer loadBalancer =
+                    clientFactory.getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+            if (loadBalancer == null) {
+                return Mono.error(NotFoundException.create(false, "No loadbalancer available for " + serviceId));
+            }
+            RouteHedging hedging = hedgingRegistry.route(route.getId(), config,
+                    config.getPercentile(), config.getBudgetRatio());
+            hedging.recordRequest();
+
+            Mono<Upstream> response = hedged(exchange, serviceId, loadBalancer, hedging)
+                    .onErrorMap(NoSuchElementException.class, HedgedRequestFilter::firstFailure);
+            Duration responseTimeout = httpClientProperties.getResponseTimeout();
+            if (responseTimeout != null) {
+                response = response.timeout(responseTimeout);
+            }
+            return response
+                    .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(
+                            HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e))
+                    .flatMap(upstream -> {
+                        if (upstream.streamed()) {
+                            hedging.bodyTooLarge();
+                        }
+                        return write(exchange, upstream);
+                    });
+        }, ORDER);
+    }
+
+    private Mono<Upstream> hedged(ServerWebExchange exchange, String serviceId,
+                                                ReactorServiceInstanceLoadBalancer loadBalancer, RouteHedging hedging) {
+        Set<LoadBalancerLifecycle> lifecycles = lifecycles(serviceId);
+        // Relie les deux tentatives côté load balancer : la seconde évite l'instance de la première
+        String hedgeGroup = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        HttpHeaders outbound = outboundHeaders(exchange);
+        AtomicReference<ServiceInstance> primaryInstance = new AtomicReference<>();
+
+        long start = System.nanoTime();
+        Mono<Attempt> primary = choose(exchange, loadBalancer, lifecycles, hedgeGroup)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(false,
+                        "Unable to find instance for " + serviceId)))
+                .flatMap(chosen -> {
+                    primaryInstance.set(chosen.lbResponse().getServer());
+                    return call(exchange, chosen, lifecycles, outbound);
+                })
+                .map(upstream -> new Attempt(upstream, false))
+                .doOnSuccess(attempt -> hedging.recordLatency(System.nanoTime() - start))
+                // Tentative annulée par la seconde : sa durée réelle dépasse au moins celle-ci
+                .doOnCancel(() -> hedging.recordLatency(System.nanoTime() - start));
+
+        Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(hedging.delayNanos()))
+                .flatMap(tick -> choose(exchange, loadBalancer, lifecycles, hedgeGroup))
+                .filter(chosen -> {
+                    if (sameInstance(chosen.lbResponse().getServer(), primaryInstance.get())) {
+                        hedging.noAlternate();
+                        return false;
+                    }
+                    return hedging.tryHedge();
+                })
+                .flatMap(chosen -> call(exchange, chosen, lifecycles, outbound))
+                .map(upstream -> new Attempt(upstream, true));
+
+        return Mono.firstWithValue(primary, hedge)
+                .doOnNext(attempt -> {
+                    if (attempt.hedge()) {
+                        hedging.hedgeWon();
+                    }
+                })
+                .map(Attempt::response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Chosen> choose(ServerWebExchange exchange, ReactorServiceInstanceLoadBalancer loadBalancer,
+                                Set<LoadBalancerLifecycle> lifecycles, String hedgeGroup) {
+        Request<RequestDataContext> lbRequest = new DefaultRequest<>(
+                new RequestDataContext(requestData(exchange, hedgeGroup), "default"));
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+        return Mono.from(loadBalancer.choose(lbRequest))
+                .filter(Response::hasServer)
+                .map(lbResponse -> new Chosen(lbRequest, lbResponse));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Upstream> call(ServerWebExchange exchange, Chosen chosen,
+                                Set<LoadBalancerLifecycle> lifecycles, HttpHeaders outbound) {
+        URI uri = LoadBalancerUriTools.reconstructURI(chosen.lbResponse().getServer(), exchange.getRequest().getURI());
+        RequestData requestData = chosen.lbRequest().getContext().getClientRequest();
+        return Mono.defer(() -> {
+                    lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(chosen.lbRequest(), chosen.lbResponse()));
+                    return webClient.get()
+                            .uri(uri)
+                            .headers(headers -> headers.addAll(outbound))
+                            .retrieve()
+                            // Statut relayé tel quel au client, erreurs comprises
+                            .onStatus(status -> true, clientResponse -> Mono.empty())
+                            .toEntityFlux(DataBuffer.class)
+                            .flatMap(this::read);
+                })
+                .doOnSuccess(upstream -> {
+                    // URL de l'instance, à la place de lb:// posée par RouteToRequestUrlFilter
+                    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, uri);
+                    ResponseData responseData = new ResponseData(upstream.status(), upstream.headers(),
+                            null, requestData);
+                    lifecycles.forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+                            CompletionContext.Status.SUCCESS, chosen.lbRequest(), chosen.lbResponse(), responseData)));
+                })
+                .doOnError(e -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+                        CompletionContext.Status.FAILED, e, chosen.lbRequest(), chosen.lbResponse()))))
+                .doOnCancel(() -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+                        CompletionContext.Status.DISCARD, chosen.lbRequest(), chosen.lbResponse()))));
+    }
+
+    /**
+     * Lit le corps jusqu'à max-body-bytes : la tentative n'aboutit qu'une fois le corps entier reçu, ou dès que
+     * cette limite est dépassée. Dans ce cas, le corps relayé reprend les morceaux déjà lus puis la suite, sur la
+     * même connexion.
+     */
+    private Mono<Upstream> read(ResponseEntity<Flux<DataBuffer>> entity) {
+        AtomicLong size = new AtomicLong();
+        Flux<DataBuffer> body = entity.getBody() != null ? entity.getBody() : Flux.empty();
+        return body
+                .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodyBytes)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                // Sans annulation de la source : les morceaux restants sont lus à l'écriture de la réponse
+                .switchOnFirst((first, chunks) -> first.isOnError()
+                        ? Mono.<Upstream>error(first.getThrowable())
+                        : Mono.just(new Upstream(entity.getStatusCode(), entity.getHeaders(),
+                                chunks.flatMapIterable(chunk -> chunk),
+                                size.get() > maxBodyBytes ? -1 : size.get())), false)
+                .singleOrEmpty();
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Upstream upstream) {
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstream.status());
+        response.getHeaders().putAll(HttpHeadersFilter.filter(headersFiltersProvider.getIfAvailable(List::of),
+                upstream.headers(), exchange, HttpHeadersFilter.Type.RESPONSE));
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        // Corps relayé au fil de l'eau : longueur de l'amont s'il l'a donnée, sinon réponse découpée
+        if (!upstream.streamed()) {
+            response.getHeaders().setContentLength(upstream.contentLength());
+        }
+        return response.writeWith(upstream.body());
+    }
+
+    private HttpHeaders outboundHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(List::of), exchange);
+        HttpHeaders outbound = new HttpHeaders();
+        outbound.putAll(headers);
+        // Host de l'instance choisie, comme NettyRoutingFilter hors preserveHostHeader
+        outbound.remove(HttpHeaders.HOST);
+        return outbound;
+    }
+
+    // Groupe en attribut de la requête load balancer : vu par le balancer uniquement, jamais transmis à l'amont
+    private static RequestData requestData(ServerWebExchange exchange, String hedgeGroup) {
+        ServerHttpRequest request = exchange.getRequest();
+        MultiValueMap<String, String> cookies = new LinkedMultiValueMap<>();
+        request.getCookies().forEach((name, values) -> values.forEach(cookie -> cookies.add(name, cookie.getValue())));
+        Map<String, Object> attributes = new HashMap<>(exchange.getAttributes());
+        attributes.put(HedgeGroup.ATTRIBUTE, hedgeGroup);
+        return new RequestData(request.getMethod(), request.getURI(), request.getHeaders(), cookies, attributes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<LoadBalancerLifecycle> lifecycles(String serviceId) {
+        return LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return b != null && a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    // Aucune tentative n'a répondu : on remonte l'erreur de la première (erreurs par tentative dans la cause)
+    private static Throwable firstFailure(NoSuchElementException e) {
+        List<Throwable> failures = Exceptions.unwrapMultiple(e.getCause());
+        return failures.isEmpty() ? e : failures.get(0);
+    }
+
+    private record Chosen(Request<RequestDataContext> lbRequest, Response<ServiceInstance> lbResponse) {
+    }
+
+    private record Attempt(Upstream response, boolean hedge) {
+    }
+
+    // Réponse d'une instance ; contentLength vaut -1 quand le corps dépasse max-body-bytes et part au fil de l'eau
+    private record Upstream(HttpStatusCode status, HttpHeaders headers, Flux<DataBuffer> body, long contentLength) {
+
+        boolean streamed() {
+            return contentLength < 0;
+        }
+    }
+}
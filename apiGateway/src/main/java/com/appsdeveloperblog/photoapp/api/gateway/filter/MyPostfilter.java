@@ -1,21 +0,0 @@
-package com.appsdeveloperblog.photoapp.api.gateway.filter;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
-
-@Component
-public class MyPostfilter implements org.springframework.cloud.gateway.filter.GlobalFilter {
-
-    final Logger logger = LoggerFactory.getLogger(MyPostfilter.class);
-
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            logger.info("MyPostfilter is completed");
-        }));
-    }
-}
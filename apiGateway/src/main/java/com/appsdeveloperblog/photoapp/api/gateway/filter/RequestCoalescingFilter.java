@@ -0,0 +1,205 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.coalescing.CoalescedResponse;
+import com.appsdeveloperblog.photoapp.api.gateway.coalescing.InFlightRequestRegistry;
+import com.appsdeveloperblog.photoapp.api.gateway.coalescing.InFlightRequestRegistry.CoalescingKey;
+import com.appsdeveloperblog.photoapp.api.gateway.coalescing.InFlightRequestRegistry.Flight;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Regroupe les GET identiques en vol (route, chemin, query, sujet authentifié, Accept) : le premier part vers
+ * l'amont, les suivants attendent sa réponse et en reçoivent une copie. Le corps est capturé au fil de l'écriture
+ * vers le premier client, jusqu'à maxBodyBytes ; au-delà, si la réponse n'est pas un 2xx, ou si l'appel amont
+ * échoue ou est annulé, les requêtes en attente repartent chacune vers l'amont. Aucune réponse n'est conservée
+ * après la fin de l'appel.
+ * Seuls les chemins listés dans paths sont regroupés (lectures d'une ressource, pas les exports ni les snapshots).
+ * Pour voir passer le corps, le filtre s'exécute juste avant NettyWriteResponseFilter, après
+ * AuthorizationHeaderFilter et UserRateLimitFilter (voir leurs ORDER) : le sujet est celui du JWT déjà vérifié,
+ * et une requête servie par copie est comptée par le limiteur comme les autres.
+ * <pre>
+ * - name: RequestCoalescingFilter
+ *   args:
+ *     max-body-bytes: 262144        # taille maximale du corps rejoué, en octets
+ *     paths: /api/users/{id:\d+}     # PathPattern ; aucun chemin : filtre sans effet
+ * </pre>
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    // En-têtes propres à la connexion du premier client, recalculés pour chaque copie
+    private static final List<String> CONNECTION_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, "Keep-Alive");
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final InFlightRequestRegistry registry;
+
+    public RequestCoalescingFilter(InFlightRequestRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Data
+    public static class Config {
+        private int maxBodyBytes = 256 * 1024;
+        private List<String> paths = List.of();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxBodyBytes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> paths = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            // Seuls les GET sans corps sont idempotents et rejouables sans risque
+            if (request.getMethod() != HttpMethod.GET || request.getHeaders().getContentLength() > 0
+                    || paths.stream().noneMatch(path -> path.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+            // Posé par AuthorizationHeaderFilter, qui s'exécute avant
+            String subject = exchange.getAttribute(AuthorizationHeaderFilter.VERIFIED_SUBJECT_ATTR);
+            if (subject == null) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+            CoalescingKey key = new CoalescingKey(routeId,
+                    request.getURI().getRawPath(),
+                    Objects.toString(request.getURI().getRawQuery(), ""),
+                    subject,
+                    Objects.toString(request.getHeaders().getFirst(HttpHeaders.ACCEPT), ""));
+
+            Flight candidate = Flight.create();
+            Flight existing = registry.join(key, candidate);
+            if (existing == null) {
+                return lead(exchange, chain, key, candidate, config.getMaxBodyBytes());
+            }
+            // replay() se termine vide : le choix copie / appel amont se fait avant de s'y abonner
+            return existing.response()
+                    .map(response -> replay(exchange, response))
+                    .defaultIfEmpty(Mono.defer(() -> {
+                        registry.fallback(routeId);
+                        return chain.filter(exchange);
+                    }))
+                    .flatMap(Function.identity());
+        }, ORDER);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain,
+                            CoalescingKey key, Flight flight, int maxBodyBytes) {
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), maxBodyBytes);
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    CoalescedResponse response = signal == SignalType.ON_COMPLETE ? capturing.captured() : null;
+                    if (response != null) {
+                        registry.complete(key, flight, response);
+                    } else {
+                        registry.abandon(key, flight);
+                    }
+                });
+    }
+
+    private static Mono<Void> replay(ServerWebExchange exchange, CoalescedResponse coalesced) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(coalesced.status());
+        response.getHeaders().putAll(coalesced.headers());
+        response.getHeaders().setContentLength(coalesced.body().length);
+        if (coalesced.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(coalesced.body())));
+    }
+
+    /**
+     * Laisse passer le corps vers le premier client en en gardant une copie bornée.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final int maxBodyBytes;
+        private byte[] body = new byte[0];
+        private int size;
+        private boolean replayable = true;
+
+        CapturingResponse(ServerHttpResponse delegate, int maxBodyBytes) {
+            super(delegate);
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Réponse en flux (SSE...) : non rejouable
+            replayable = false;
+            return super.writeAndFlushWith(body);
+        }
+
+        private void capture(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (!replayable || length == 0) {
+                return;
+            }
+            if (size + length > maxBodyBytes) {
+                replayable = false;
+                body = null;
+                return;
+            }
+            if (size + length > body.length) {
+                body = Arrays.copyOf(body, Math.min(maxBodyBytes, Math.max(size + length, body.length * 2)));
+            }
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(body), size, length);
+            size += length;
+        }
+
+        // null si la réponse n'est pas à partager : erreurs et redirections sont propres à chaque appel
+        CoalescedResponse captured() {
+            HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+            if (!replayable || !status.is2xxSuccessful()) {
+                return null;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (CONNECTION_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            return new CoalescedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), Arrays.copyOf(body, size));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.ratelimit.SubjectLimiter;
+import com.appsdeveloperblog.photoapp.api.gateway.ratelimit.SubjectLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit (seau à jetons) et requêtes simultanées limités par sujet authentifié et par route.
+ * S'exécute après AuthorizationHeaderFilter et avant RequestCoalescingFilter (ORDER), quelle que soit sa
+ * position dans la route ; sans sujet vérifié (login), la clé est l'adresse du client.
+ * Refus en 429 avec Retry-After : un client trop gourmand ne sature plus les instances users-ws / album-ws.
+ * <pre>
+ * - UserRateLimitFilter=20, 40, 10   # jetons/s, capacité du seau, requêtes en cours (0 = sans limite)
+ * </pre>
+ */
+@Component
+public class UserRateLimitFilter extends AbstractGatewayFilterFactory<UserRateLimitFilter.Config> {
+
+    public static final int ORDER = RequestCoalescingFilter.ORDER - 1;
+
+    private final SubjectLimiterRegistry limiterRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public UserRateLimitFilter(SubjectLimiterRegistry limiterRegistry, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.limiterRegistry = limiterRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Data
+    public static class Config {
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private int maxInFlight = 10;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity", "maxInFlight");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+            SubjectLimiter limiter = limiterRegistry.limiter(routeId, subject(exchange), config,
+                    config.getReplenishRate(), config.getBurstCapacity(), config.getMaxInFlight());
+
+            if (!limiter.tryEnter()) {
+                return reject(exchange, routeId, "concurrency", 1);
+            }
+            long waitNanos = limiter.tryConsume();
+            if (waitNanos > 0) {
+                limiter.exit();
+                // Arrondi à la seconde supérieure (Retry-After n'accepte que des secondes entières)
+                long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                return reject(exchange, routeId, "rate", retryAfter);
+            }
+            return chain.filter(exchange).doFinally(signal -> limiter.exit());
+        }, ORDER);
+    }
+
+    private static String subject(ServerWebExchange exchange) {
+        String subject = exchange.getAttribute(AuthorizationHeaderFilter.VERIFIED_SUBJECT_ATTR);
+        if (subject != null) {
+            return subject;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : "anonymous";
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String reason, long retryAfterSeconds) {
+        meterRegistry.counter("gateway.requests.limited", "route", routeId, "reason", reason).increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,68 @@
+package com.appsdeveloperblog.photoapp.api.gateway.hedging;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.resilience.LatencyPercentile;
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * État de couverture par route, recréé quand la configuration de la route change (refresh des routes).
+ * Expose gateway.hedge.delay{route}, le délai courant avant la seconde tentative.
+ */
+@Component
+public class HedgingRegistry {
+
+    private final ApplicationConfiguration applicationConfiguration;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    public HedgingRegistry(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.applicationConfiguration = applicationConfiguration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param config configuration de la route, recréée à chaque refresh des routes : l'état suit
+     */
+    public RouteHedging route(String routeId, Object config, double percentile, double budgetRatio) {
+        RouteHedging hedging = routes.get(routeId);
+        if (hedging == null || !hedging.isOwnedBy(config)) {
+            hedging = routes.compute(routeId, (id, existing) -> existing != null && existing.isOwnedBy(config)
+                    ? existing : newRouteHedging(id, config, percentile, budgetRatio));
+        }
+        return hedging;
+    }
+
+    private RouteHedging newRouteHedging(String routeId, Object config, double percentile, double budgetRatio) {
+        ApplicationConfiguration.Hedging hedging = applicationConfiguration.getHedging();
+        TimeGauge.builder("gateway.hedge.delay", routes, TimeUnit.NANOSECONDS, map -> {
+                    RouteHedging current = map.get(routeId);
+                    return current == null ? 0 : current.delayNanos();
+                })
+                .tag("route", routeId)
+                .description("Délai avant la seconde tentative")
+                .register(meterRegistry);
+        return new RouteHedging(config,
+                new LatencyPercentile(percentile, hedging.getWindow().toNanos()),
+                new RetryBudget(routeId, (int) hedging.getWindow().toSeconds()),
+                budgetRatio, hedging.getMinHedgesPerSecond(),
+                hedging.getMinDelay().toNanos(), hedging.getMaxDelay().toNanos(),
+                counter(routeId, "fired"), counter(routeId, "won"),
+                counter(routeId, "budget-exhausted"), counter(routeId, "no-alternate"),
+                counter(routeId, "body-too-large"));
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.hedge.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.appsdeveloperblog.photoapp.api.gateway.hedging;
+
+import com.appsdeveloperblog.photoapp.common.resilience.LatencyPercentile;
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * État de couverture d'une route : quantile des durées observées (délai avant la seconde tentative),
+ * budget et compteurs gateway.hedge.requests{route,result}.
+ */
+public final class RouteHedging {
+
+    private final Object owner;
+    private final LatencyPercentile latency;
+    private final RetryBudget budget;
+    private final double budgetRatio;
+    private final int minHedgesPerSecond;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter budgetExhausted;
+    private final Counter noAlternate;
+    private final Counter bodyTooLarge;
+
+    RouteHedging(Object owner, LatencyPercentile latency, RetryBudget budget, double budgetRatio,
+                 int minHedgesPerSecond, long minDelayNanos, long maxDelayNanos,
+                 Counter fired, Counter won, Counter budgetExhausted, Counter noAlternate, Counter bodyTooLarge) {
+        this.owner = owner;
+        this.latency = latency;
+        this.budget = budget;
+        this.budgetRatio = budgetRatio;
+        this.minHedgesPerSecond = minHedgesPerSecond;
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.fired = fired;
+        this.won = won;
+        this.budgetExhausted = budgetExhausted;
+        this.noAlternate = noAlternate;
+        this.bodyTooLarge = bodyTooLarge;
+    }
+
+    boolean isOwnedBy(Object config) {
+        return owner == config;
+    }
+
+    /**
+     * Délai avant la seconde tentative : le quantile observé borné par [min-delay, max-delay],
+     * max-delay tant que les mesures manquent.
+     */
+    public long delayNanos() {
+        long observed = latency.valueNanos();
+        if (observed < 0) {
+            return maxDelayNanos;
+        }
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, observed));
+    }
+
+    public void recordRequest() {
+        budget.recordRequest();
+    }
+
+    public void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    public boolean tryHedge() {
+        if (budget.tryRetry(budgetRatio, minHedgesPerSecond)) {
+            fired.increment();
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    public void hedgeWon() {
+        won.increment();
+    }
+
+    // Une seule instance disponible : pas de seconde tentative
+    public void noAlternate() {
+        noAlternate.increment();
+    }
+
+    // Corps au-delà de max-body-bytes : la tentative qui l'a atteint est relayée au fil de l'eau
+    public void bodyTooLarge() {
+        bodyTooLarge.increment();
+    }
+}
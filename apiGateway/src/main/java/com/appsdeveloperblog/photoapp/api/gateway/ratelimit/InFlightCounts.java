@@ -0,0 +1,33 @@
+package com.appsdeveloperblog.photoapp.api.gateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requêtes en cours par clé, hors du cache des limiteurs. Entrée et sortie passent par compute :
+ * une clé retombée à zéro est retirée sans qu'une entrée concurrente puisse compter sur un compteur orphelin.
+ */
+final class InFlightCounts {
+
+    private final ConcurrentHashMap<Object, Integer> counts = new ConcurrentHashMap<>();
+
+    boolean tryEnter(Object key, int maxInFlight) {
+        boolean[] entered = new boolean[1];
+        counts.compute(key, (k, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxInFlight) {
+                return count;
+            }
+            entered[0] = true;
+            return current + 1;
+        });
+        return entered[0];
+    }
+
+    void exit(Object key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    int size() {
+        return counts.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.appsdeveloperblog.photoapp.api.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limites d'un couple (route, sujet) : seau à jetons et nombre de requêtes en cours, sans verrou.
+ * Le seau suit l'algorithme GCRA : un seul horodatage (heure d'arrivée théorique) mis à jour par CAS,
+ * équivalent à un seau de burstCapacity jetons rechargé de replenishRate jetons par seconde.
+ * Les requêtes en cours sont comptées hors du limiteur ({@link InFlightCounts}) : elles survivent à son
+ * éviction ou à son remplacement après un refresh des routes.
+ */
+public final class SubjectLimiter {
+
+    private final Object owner;
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final int maxInFlight;
+    private final AtomicLong theoreticalArrival;
+    private final InFlightCounts inFlight;
+    private final Object key;
+
+    SubjectLimiter(Object owner, double replenishRate, int burstCapacity, int maxInFlight) {
+        this(owner, new InFlightCounts(), owner, replenishRate, burstCapacity, maxInFlight);
+    }
+
+    SubjectLimiter(Object owner, InFlightCounts inFlight, Object key,
+                   double replenishRate, int burstCapacity, int maxInFlight) {
+        this.owner = owner;
+        this.inFlight = inFlight;
+        this.key = key;
+        this.emissionIntervalNanos = replenishRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / replenishRate) : 0;
+        this.toleranceNanos = emissionIntervalNanos * (Math.max(1, burstCapacity) - 1);
+        this.maxInFlight = maxInFlight;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // Configuration de route à l'origine du limiteur : un refresh des routes en crée une nouvelle
+    boolean isOwnedBy(Object config) {
+        return owner == config;
+    }
+
+    /**
+     * Consomme un jeton.
+     *
+     * @return 0 si la requête passe, sinon l'attente en nanosecondes avant le prochain jeton
+     */
+    public long tryConsume() {
+        if (emissionIntervalNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean tryEnter() {
+        return maxInFlight <= 0 || inFlight.tryEnter(key, maxInFlight);
+    }
+
+    public void exit() {
+        if (maxInFlight > 0) {
+            inFlight.exit(key);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.appsdeveloperblog.photoapp.api.gateway.ratelimit;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limiteurs en mémoire par (route, sujet), sans Redis : chaque instance de la gateway applique ses propres
+ * limites. Les clés inactives depuis idle-timeout sont évincées, le nombre total de clés est borné.
+ * Les requêtes en cours restent comptées hors du cache : évincer un limiteur ne libère pas ses places.
+ */
+@Component
+public class SubjectLimiterRegistry {
+
+    private final Cache<LimiterKey, SubjectLimiter> limiters;
+    private final InFlightCounts inFlight = new InFlightCounts();
+
+    public SubjectLimiterRegistry(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        ApplicationConfiguration.RateLimit rateLimit = applicationConfiguration.getRateLimit();
+        this.limiters = Caffeine.newBuilder()
+                .expireAfterAccess(rateLimit.getIdleTimeout())
+                .maximumSize(rateLimit.getMaximumKeys())
+                .build();
+        Gauge.builder("gateway.limiter.keys", limiters, Cache::estimatedSize)
+                .description("Couples (route, sujet) suivis par les limiteurs")
+                .register(meterRegistry);
+        Gauge.builder("gateway.limiter.in-flight.keys", inFlight, InFlightCounts::size)
+                .description("Couples (route, sujet) ayant des requêtes en cours")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param config configuration de la route, recréée à chaque refresh des routes : le limiteur suit
+     */
+    public SubjectLimiter limiter(String routeId, String subject, Object config,
+                                  double replenishRate, int burstCapacity, int maxInFlight) {
+        LimiterKey key = new LimiterKey(routeId, subject);
+        SubjectLimiter limiter = limiters.get(key, k -> newLimiter(k, config, replenishRate, burstCapacity, maxInFlight));
+        if (!limiter.isOwnedBy(config)) {
+            limiter = newLimiter(key, config, replenishRate, burstCapacity, maxInFlight);
+            limiters.put(key, limiter);
+        }
+        return limiter;
+    }
+
+    private SubjectLimiter newLimiter(LimiterKey key, Object config,
+                                      double replenishRate, int burstCapacity, int maxInFlight) {
+        return new SubjectLimiter(config, inFlight, key, replenishRate, burstCapacity, maxInFlight);
+    }
+
+    private record LimiterKey(String routeId, String subject) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.appsdeveloperblog.photoapp.api.gateway.security;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Signature de X-User-Identity (photoAppCommon), avec le secret partagé application.identity.secret
+@Configuration
+public class IdentityConfiguration {
+
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(ApplicationConfiguration applicationConfiguration) {
+        return new IdentityHeaderCodec(() -> applicationConfiguration.getIdentity().getSecret());
+    }
+
+    @Bean
+    public IdentityHeaderSigner identityHeaderSigner(ApplicationConfiguration applicationConfiguration,
+                                                     IdentityHeaderCodec identityHeaderCodec, ObjectMapper objectMapper) {
+        return new IdentityHeaderSigner(applicationConfiguration, identityHeaderCodec, objectMapper);
+    }
+}
@@ -0,0 +1,58 @@
+package com.appsdeveloperblog.photoapp.api.gateway.security;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construit l'en-tête {@value #IDENTITY_HEADER} transmis aux services en aval, au format de
+ * {@link IdentityHeaderCodec}. Les services qui partagent le secret peuvent ainsi faire confiance
+ * à l'identité sans rappeler users-ws ni re-parser le JWT.
+ */
+public class IdentityHeaderSigner {
+
+    public static final String IDENTITY_HEADER = IdentityHeaderCodec.IDENTITY_HEADER;
+
+    private final ApplicationConfiguration applicationConfiguration;
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final ObjectMapper objectMapper;
+
+    public IdentityHeaderSigner(ApplicationConfiguration applicationConfiguration, IdentityHeaderCodec identityHeaderCodec,
+                                ObjectMapper objectMapper) {
+        this.applicationConfiguration = applicationConfiguration;
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return applicationConfiguration.getIdentity().isEnabled();
+    }
+
+    public String sign(VerifiedToken verifiedToken) {
+        Claims claims = verifiedToken.claims();
+        Map<String, Object> identity = new LinkedHashMap<>();
+        identity.put("uid", toLong(claims.get("userId")));
+        identity.put("sub", verifiedToken.subject());
+        identity.put("roles", claims.get("roles") instanceof List<?> roles ? roles : List.of());
+        identity.put("exp", verifiedToken.expiresAt().getEpochSecond());
+
+        try {
+            return identityHeaderCodec.encode(objectMapper.writeValueAsBytes(identity));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize identity header", e);
+        }
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+}
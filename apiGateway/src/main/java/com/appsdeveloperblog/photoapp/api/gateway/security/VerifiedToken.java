@@ -0,0 +1,19 @@
+package com.appsdeveloperblog.photoapp.api.gateway.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Résultat d'une vérification JWT réussie (signature + expiration).
+ */
+public record VerifiedToken(String subject, Claims claims) {
+
+    public static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(claims.getSubject(), claims);
+    }
+
+    public Instant expiresAt() {
+        return claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.appsdeveloperblog.photoapp.api.gateway.security;
+
+import com.appsdeveloperblog.photoapp.api.gateway.JwtUtil;
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cache borné des JWT déjà vérifiés, indexé par l'empreinte SHA-256 du token.
+ * Chaque entrée expire à la date {@code exp} du token : un hit évite la vérification HS512.
+ * Le parser et le cache sont reconstruits quand le secret change (refresh de la configuration).
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "gateway.verified-tokens";
+
+    private final ApplicationConfiguration applicationConfiguration;
+    private final AtomicReference<Generation> current = new AtomicReference<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.applicationConfiguration = applicationConfiguration;
+
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Tokens servis depuis le cache").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Tokens vérifiés (signature HS512)").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+                .description("Entrées évincées (taille ou expiration)").register(meterRegistry);
+        Gauge.builder("cache.size", current, ref -> {
+                    Generation generation = ref.get();
+                    return generation == null ? 0 : generation.cache().estimatedSize();
+                })
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retourne le token vérifié, depuis le cache si possible.
+     *
+     * @throws JwtException si la signature est invalide ou le token expiré
+     */
+    public VerifiedToken verify(String token) {
+        Generation generation = currentGeneration();
+        if (generation.cache() == null) {
+            misses.increment();
+            return VerifiedToken.of(generation.jwtUtil().extractClaims(token));
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = generation.cache().getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        VerifiedToken verified = VerifiedToken.of(generation.jwtUtil().extractClaims(token));
+        if (verified.expiresAt() != null) {
+            generation.cache().put(key, verified);
+        }
+        return verified;
+    }
+
+    // Le refresh recrée ApplicationConfiguration : on repart d'un parser et d'un cache vides
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        Generation previous = current.getAndSet(null);
+        if (previous != null && previous.cache() != null) {
+            previous.cache().invalidateAll();
+        }
+        log.debug("Verified token cache reset after configuration refresh");
+    }
+
+    private Generation currentGeneration() {
+        ApplicationConfiguration.Token token = applicationConfiguration.getToken();
+        Generation generation = current.get();
+        if (generation != null && generation.secret().equals(token.getSecret())) {
+            return generation;
+        }
+
+        Generation fresh = newGeneration(token, applicationConfiguration.getTokenCache());
+        if (current.compareAndSet(generation, fresh)) {
+            if (generation != null && generation.cache() != null) {
+                generation.cache().invalidateAll();
+            }
+            return fresh;
+        }
+        Generation winner = current.get();
+        return winner != null ? winner : fresh;
+    }
+
+    private Generation newGeneration(ApplicationConfiguration.Token token, ApplicationConfiguration.TokenCache tokenCache) {
+        // Le parser n'est construit qu'une fois par secret
+        JwtUtil jwtUtil = new JwtUtil(token.getSecret(), token.getExpirationTime());
+        if (!tokenCache.isEnabled()) {
+            return new Generation(token.getSecret(), jwtUtil, null);
+        }
+
+        Cache<String, VerifiedToken> cache = Caffeine.newBuilder()
+                .maximumSize(tokenCache.getMaximumSize())
+                .expireAfter(new ExpireAtTokenExpiration())
+                .removalListener((String key, VerifiedToken value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        return new Generation(token.getSecret(), jwtUtil, cache);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Generation(String secret, JwtUtil jwtUtil, Cache<String, VerifiedToken> cache) {
+    }
+
+    private static class ExpireAtTokenExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return Math.max(0, remainingMillis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.SignalType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogFilterTest {
+
+    @Test
+    void errorStatusComesFromTheResponseStatusException() {
+        ResponseStatusException tooMany = new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(AccessLogFilter.status(null, SignalType.ON_ERROR, tooMany)).isEqualTo(429);
+        assertThat(AccessLogFilter.status(null, SignalType.ON_ERROR, new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .isEqualTo(404);
+    }
+
+    @Test
+    void otherErrorsAreLoggedAsServerErrors() {
+        assertThat(AccessLogFilter.status(HttpStatus.OK, SignalType.ON_ERROR, new IllegalStateException())).isEqualTo(500);
+    }
+
+    @Test
+    void completedExchangeKeepsItsResponseStatus() {
+        assertThat(AccessLogFilter.status(HttpStatus.CREATED, SignalType.ON_COMPLETE, null)).isEqualTo(201);
+        assertThat(AccessLogFilter.status(null, SignalType.ON_COMPLETE, null)).isEqualTo(200);
+        assertThat(AccessLogFilter.status(null, SignalType.CANCEL, null)).isEqualTo(499);
+    }
+}
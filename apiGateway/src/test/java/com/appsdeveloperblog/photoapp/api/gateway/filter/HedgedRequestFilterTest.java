@@ -0,0 +1,147 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.api.gateway.hedging.HedgingRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgedRequestFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_BODY_BYTES = 1024;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger chainCalls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // /api/users/1/albums : corps court ; /api/users/2/albums : corps au-delà de MAX_BODY_BYTES
+    private final DisposableServer upstream = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/api/users/{id}/albums", (request, response) -> {
+                upstreamCalls.incrementAndGet();
+                String body = "1".equals(request.param("id")) ? "[]" : "[\"" + "x".repeat(2 * MAX_BODY_BYTES) + "\"]";
+                return response.header("Content-Type", "application/json").sendString(Mono.just(body));
+            }))
+            .bindNow();
+    private final GatewayFilter filter = filter().apply(config());
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void listedPathIsRoutedByTheFilter() {
+        MockServerWebExchange exchange = exchange("/api/users/1/albums");
+
+        filter.filter(exchange, chain()).block(TIMEOUT);
+
+        assertThat(chainCalls).hasValue(0);
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(ServerWebExchangeUtils.isAlreadyRouted(exchange)).isTrue();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block(TIMEOUT)).isEqualTo("[]");
+        assertThat(exchange.<URI>getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR))
+                .hasPort(upstream.port());
+    }
+
+    @Test
+    void pathsOutsideTheListFollowTheChain() {
+        filter.filter(exchange("/api/users/me/albums"), chain()).block(TIMEOUT);
+        filter.filter(exchange("/api/users/1/albums/export"), chain()).block(TIMEOUT);
+
+        assertThat(chainCalls).hasValue(2);
+        assertThat(upstreamCalls).hasValue(0);
+    }
+
+    @Test
+    void tooLargeBodyIsStreamedWithoutCallingTheUpstreamAgain() {
+        MockServerWebExchange exchange = exchange("/api/users/2/albums");
+
+        filter.filter(exchange, chain()).block(TIMEOUT);
+
+        assertThat(chainCalls).hasValue(0);
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(ServerWebExchangeUtils.isAlreadyRouted(exchange)).isTrue();
+        assertThat(exchange.getResponse().getBodyAsString().block(TIMEOUT))
+                .isEqualTo("[\"" + "x".repeat(2 * MAX_BODY_BYTES) + "\"]");
+        assertThat(meterRegistry.get("gateway.hedge.requests").tag("result", "body-too-large").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void runsAfterCoalescingAndInPlaceOfTheLoadBalancer() {
+        assertThat(((OrderedGatewayFilter) filter).getOrder())
+                .isGreaterThan(RequestCoalescingFilter.ORDER)
+                .isGreaterThan(RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER)
+                .isLessThan(ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HedgedRequestFilter filter() {
+        ApplicationConfiguration applicationConfiguration = new ApplicationConfiguration();
+        applicationConfiguration.getHedging().setMaxBodyBytes(MAX_BODY_BYTES);
+        ReactorServiceInstanceLoadBalancer loadBalancer = request -> Mono.just(new DefaultResponse(
+                new DefaultServiceInstance("album-1", "album-ws", "localhost", upstream.port(), false)));
+        LoadBalancerClientFactory clientFactory = mock(LoadBalancerClientFactory.class);
+        when(clientFactory.getInstance("album-ws", ReactorServiceInstanceLoadBalancer.class)).thenReturn(loadBalancer);
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+        return new HedgedRequestFilter(new HedgingRegistry(applicationConfiguration, meterRegistry), clientFactory,
+                headersFilters, new HttpClientProperties(), HttpClient.create(), applicationConfiguration);
+    }
+
+    private static HedgedRequestFilter.Config config() {
+        HedgedRequestFilter.Config config = new HedgedRequestFilter.Config();
+        config.setPaths(List.of("/api/users/{id:\\d+}/albums"));
+        return config;
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("album-ws")
+                .uri(URI.create("lb://album-ws"))
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private GatewayFilterChain chain() {
+        return exchange -> {
+            chainCalls.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.appsdeveloperblog.photoapp.api.gateway.filter;
+
+import com.appsdeveloperblog.photoapp.api.gateway.coalescing.InFlightRequestRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final InFlightRequestRegistry registry = new InFlightRequestRegistry(new SimpleMeterRegistry());
+    private final GatewayFilter filter = new RequestCoalescingFilter(registry).apply(config());
+    private final Sinks.Empty<Void> upstreamDone = Sinks.empty();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void identicalReadsShareOneUpstreamCall() {
+        MockServerWebExchange leader = exchange("/api/users/1");
+        MockServerWebExchange follower = exchange("/api/users/1");
+
+        CompletableFuture<Void> leading = filter.filter(leader, upstream(HttpStatus.OK, "{\"id\":1}")).toFuture();
+        CompletableFuture<Void> following = filter.filter(follower, upstream(HttpStatus.OK, "{\"id\":1}")).toFuture();
+        upstreamDone.tryEmitEmpty();
+        leading.join();
+        following.join();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block(TIMEOUT)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void pathsOutsideTheListAreNotCoalesced() {
+        CompletableFuture<Void> first = filter.filter(exchange("/api/users/export"), upstream(HttpStatus.OK, "[]")).toFuture();
+        CompletableFuture<Void> second = filter.filter(exchange("/api/users/export"), upstream(HttpStatus.OK, "[]")).toFuture();
+        CompletableFuture<Void> snapshot = filter.filter(exchange("/api/users/snapshot"), upstream(HttpStatus.OK, "[]")).toFuture();
+        upstreamDone.tryEmitEmpty();
+        CompletableFuture.allOf(first, second, snapshot).join();
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void errorResponsesAreNotShared() {
+        MockServerWebExchange follower = exchange("/api/users/1");
+
+        CompletableFuture<Void> leading = filter.filter(exchange("/api/users/1"),
+                upstream(HttpStatus.SERVICE_UNAVAILABLE, "down")).toFuture();
+        CompletableFuture<Void> following = filter.filter(follower, upstream(HttpStatus.OK, "{\"id\":1}")).toFuture();
+        upstreamDone.tryEmitEmpty();
+        leading.join();
+        following.join();
+
+        // Le suiveur repart vers l'amont au lieu de recevoir le 503 du meneur
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void requestsWithoutVerifiedSubjectAreNotCoalesced() {
+        MockServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+
+        CompletableFuture<Void> first = filter.filter(anonymous, upstream(HttpStatus.OK, "{}")).toFuture();
+        CompletableFuture<Void> second = filter.filter(
+                MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1")), upstream(HttpStatus.OK, "{}")).toFuture();
+        upstreamDone.tryEmitEmpty();
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void runsAfterAuthorizationAndRateLimiting() {
+        assertThat(((OrderedGatewayFilter) filter).getOrder())
+                .isGreaterThan(UserRateLimitFilter.ORDER)
+                .isGreaterThan(AuthorizationHeaderFilter.ORDER);
+        assertThat(UserRateLimitFilter.ORDER).isGreaterThan(AuthorizationHeaderFilter.ORDER);
+    }
+
+    private static RequestCoalescingFilter.Config config() {
+        RequestCoalescingFilter.Config config = new RequestCoalescingFilter.Config();
+        config.setPaths(List.of("/api/users/{id:\\d+}", "/api/users/{id:\\d+}/albums"));
+        return config;
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        exchange.getAttributes().put(AuthorizationHeaderFilter.VERIFIED_SUBJECT_ATTR, "user@test.com");
+        return exchange;
+    }
+
+    // Répond une fois upstreamDone terminé : les requêtes suivantes arrivent pendant le vol du meneur
+    private GatewayFilterChain upstream(HttpStatus status, String body) {
+        return (ServerWebExchange exchange) -> upstreamDone.asMono().then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().writeWith(Mono.just(
+                    DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }));
+    }
+}
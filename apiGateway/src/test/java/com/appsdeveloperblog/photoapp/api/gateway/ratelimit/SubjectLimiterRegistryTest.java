@@ -0,0 +1,61 @@
+package com.appsdeveloperblog.photoapp.api.gateway.ratelimit;
+
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubjectLimiterRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Object route = new Object();
+
+    @Test
+    void inFlightRequestsOutliveTheEvictionOfTheirLimiter() {
+        SubjectLimiterRegistry registry = registry(1);
+        SubjectLimiter limiter = registry.limiter("album-ws", "alice", route, 0, 1, 2);
+        assertThat(limiter.tryEnter()).isTrue();
+        assertThat(limiter.tryEnter()).isTrue();
+
+        // Cache limité à une clé : le limiteur d'alice est évincé
+        for (int i = 0; i < 100; i++) {
+            registry.limiter("album-ws", "subject-" + i, route, 0, 1, 2);
+        }
+
+        assertThat(registry.limiter("album-ws", "alice", route, 0, 1, 2).tryEnter()).isFalse();
+    }
+
+    @Test
+    void inFlightRequestsOutliveARouteRefresh() {
+        SubjectLimiterRegistry registry = registry(100);
+        SubjectLimiter limiter = registry.limiter("album-ws", "alice", route, 0, 1, 1);
+        assertThat(limiter.tryEnter()).isTrue();
+
+        SubjectLimiter refreshed = registry.limiter("album-ws", "alice", new Object(), 0, 1, 1);
+        assertThat(refreshed).isNotSameAs(limiter);
+        assertThat(refreshed.tryEnter()).isFalse();
+
+        // La sortie passe par l'ancien limiteur et libère la place du nouveau
+        limiter.exit();
+        assertThat(refreshed.tryEnter()).isTrue();
+    }
+
+    @Test
+    void subjectWithoutRequestsInFlightIsForgotten() {
+        SubjectLimiterRegistry registry = registry(100);
+        SubjectLimiter limiter = registry.limiter("album-ws", "alice", route, 0, 1, 2);
+
+        limiter.tryEnter();
+        assertThat(meterRegistry.get("gateway.limiter.in-flight.keys").gauge().value()).isEqualTo(1);
+
+        limiter.exit();
+        assertThat(meterRegistry.get("gateway.limiter.in-flight.keys").gauge().value()).isZero();
+    }
+
+    private SubjectLimiterRegistry registry(long maximumKeys) {
+        ApplicationConfiguration applicationConfiguration = new ApplicationConfiguration();
+        applicationConfiguration.getRateLimit().setMaximumKeys(maximumKeys);
+        return new SubjectLimiterRegistry(applicationConfiguration, meterRegistry);
+    }
+}
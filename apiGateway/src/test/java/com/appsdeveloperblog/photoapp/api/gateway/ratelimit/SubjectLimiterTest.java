@@ -0,0 +1,125 @@
+package com.appsdeveloperblog.photoapp.api.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubjectLimiterTest {
+
+    private final Object route = new Object();
+
+    @Test
+    void burstCapacityPassesAtOnceThenTheCallerWaitsOneEmissionInterval() {
+        // 0,01 jeton par seconde : aucune recharge pendant le test
+        SubjectLimiter limiter = new SubjectLimiter(route, 0.01, 3, 0);
+
+        assertThat(limiter.tryConsume()).isZero();
+        assertThat(limiter.tryConsume()).isZero();
+        assertThat(limiter.tryConsume()).isZero();
+
+        assertThat(limiter.tryConsume())
+                .isGreaterThan(TimeUnit.SECONDS.toNanos(99))
+                .isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(100));
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeAToken() {
+        SubjectLimiter limiter = new SubjectLimiter(route, 0.01, 1, 0);
+
+        assertThat(limiter.tryConsume()).isZero();
+        long first = limiter.tryConsume();
+        long second = limiter.tryConsume();
+
+        // L'attente ne s'allonge pas : le refus n'a pas avancé l'heure d'arrivée théorique
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void tokensAreReplenishedAtTheConfiguredRate() throws InterruptedException {
+        // Un jeton toutes les 50 ms
+        SubjectLimiter limiter = new SubjectLimiter(route, 20, 1, 0);
+
+        assertThat(limiter.tryConsume()).isZero();
+        long wait = limiter.tryConsume();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(limiter.tryConsume()).isZero();
+    }
+
+    @Test
+    void idleLimiterDoesNotAccumulateMoreThanItsBurst() throws InterruptedException {
+        // Un jeton toutes les 100 ms : l'inactivité en vaudrait trois sans la borne du seau
+        SubjectLimiter limiter = new SubjectLimiter(route, 10, 2, 0);
+
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        assertThat(limiter.tryConsume()).isZero();
+        assertThat(limiter.tryConsume()).isZero();
+        assertThat(limiter.tryConsume()).isPositive();
+    }
+
+    @Test
+    void zeroRateDisablesTheBucket() {
+        SubjectLimiter limiter = new SubjectLimiter(route, 0, 1, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.tryConsume()).isZero();
+        }
+    }
+
+    @Test
+    void concurrentCallersShareExactlyTheBurst() throws InterruptedException {
+        SubjectLimiter limiter = new SubjectLimiter(route, 0.01, 10, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (limiter.tryConsume() == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted).hasValue(10);
+    }
+
+    @Test
+    void inFlightLimitIsReleasedOnExit() {
+        SubjectLimiter limiter = new SubjectLimiter(route, 0, 1, 2);
+
+        assertThat(limiter.tryEnter()).isTrue();
+        assertThat(limiter.tryEnter()).isTrue();
+        assertThat(limiter.tryEnter()).isFalse();
+
+        limiter.exit();
+        assertThat(limiter.tryEnter()).isTrue();
+    }
+
+    @Test
+    void limiterBelongsToTheRouteConfigurationThatCreatedIt() {
+        SubjectLimiter limiter = new SubjectLimiter(route, 1, 1, 0);
+
+        assertThat(limiter.isOwnedBy(route)).isTrue();
+        assertThat(limiter.isOwnedBy(new Object())).isFalse();
+    }
+}
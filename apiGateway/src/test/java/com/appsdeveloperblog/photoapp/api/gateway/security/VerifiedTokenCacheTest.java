@@ -0,0 +1,76 @@
+package com.appsdeveloperblog.photoapp.api.gateway.security;
+
+import com.appsdeveloperblog.photoapp.api.gateway.JwtUtil;
+import com.appsdeveloperblog.photoapp.api.gateway.configuration.ApplicationConfiguration;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtMTIzNDU2Nzg5MA==";
+    private static final String OTHER_SECRET = "b3RoZXItc2VjcmV0LW90aGVyLXNlY3JldC1vdGhlci1zZWNyZXQtb3RoZXItc2VjcmV0LW90aGVyLXNlY3JldC0xMjM0NTY=";
+
+    private ApplicationConfiguration configuration;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new ApplicationConfiguration();
+        ApplicationConfiguration.Token token = new ApplicationConfiguration.Token();
+        token.setSecret(SECRET);
+        token.setExpirationTime(3600);
+        configuration.setToken(token);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(configuration, meterRegistry);
+    }
+
+    @Test
+    void secondVerificationIsServedFromCache() {
+        String token = new JwtUtil(SECRET, 3600L).generateToken("user-1");
+
+        assertThat(cache.verify(token).subject()).isEqualTo("user-1");
+        assertThat(cache.verify(token).subject()).isEqualTo("user-1");
+
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String forged = new JwtUtil(OTHER_SECRET, 3600L).generateToken("user-1");
+
+        assertThatThrownBy(() -> cache.verify(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void secretRotationDropsTokensVerifiedWithThePreviousKey() {
+        String token = new JwtUtil(SECRET, 3600L).generateToken("user-1");
+        cache.verify(token);
+
+        configuration.getToken().setSecret(OTHER_SECRET);
+
+        assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        configuration.getTokenCache().setEnabled(false);
+        String token = new JwtUtil(SECRET, 3600L).generateToken("user-1");
+
+        cache.verify(token);
+        cache.verify(token);
+
+        assertThat(count("miss")).isEqualTo(2);
+        assertThat(count("hit")).isZero();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+}
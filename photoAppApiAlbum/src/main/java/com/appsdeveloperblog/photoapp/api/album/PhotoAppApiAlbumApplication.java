@@ -1,13 +1,21 @@
 package com.appsdeveloperblog.photoapp.api.album;
 
+import com.appsdeveloperblog.photoapp.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.appsdeveloperblog.photoapp.common.virtualthreads.VirtualThreadConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 @EnableFeignClients // Ajouter cette annotation
+@Import(VirtualThreadConfiguration.class) // Conditionnée par spring.threads.virtual.enabled
+@RemoteApplicationEventScan(basePackages = "com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.messaging.bus")
 public class PhotoAppApiAlbumApplication {
 
 	public static void main(String[] args) {
@@ -2,6 +2,7 @@ package com.appsdeveloperblog.photoapp.api.album.application.port.in;
 
 import com.appsdeveloperblog.photoapp.api.album.domain.model.Album;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,8 @@ public interface AlbumUseCase {
 
     List<Album> findAllAlbumByUserId(long userId);
 
+    List<Album> findAllAlbumByUserIds(Collection<Long> userIds);
+
     List<Album> findAllAlbum();
 
     void deleteAlbumById(long id);
@@ -2,6 +2,7 @@ package com.appsdeveloperblog.photoapp.api.album.application.port.out;
 
 import com.appsdeveloperblog.photoapp.api.album.domain.model.Album;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +10,7 @@ public interface AlbumRepository {
     Album save(Album album);
     Optional<Album> findById(long id);
     List<Album>findAllByUserId(long userId);
+    List<Album> findAllByUserIds(Collection<Long> userIds);
     List<Album> findAll();
     void deleteAlbum(long id);
 }
\ No newline at end of file
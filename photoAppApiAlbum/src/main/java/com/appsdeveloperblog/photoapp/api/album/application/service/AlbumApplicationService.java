@@ -6,6 +6,7 @@ import com.appsdeveloperblog.photoapp.api.album.domain.exception.AlbumNotFoundEx
 import com.appsdeveloperblog.photoapp.api.album.domain.model.Album;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,14 @@ public class AlbumApplicationService implements AlbumUseCase {
         return albumRepository.findAllByUserId(userId);
     }
 
+    @Override
+    public List<Album> findAllAlbumByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return albumRepository.findAllByUserIds(userIds);
+    }
+
     @Override
     public List<Album> findAllAlbum() {
         return albumRepository.findAll();
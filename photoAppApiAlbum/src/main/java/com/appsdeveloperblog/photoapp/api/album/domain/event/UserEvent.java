@@ -0,0 +1,15 @@
+package com.appsdeveloperblog.photoapp.api.album.domain.event;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Événement de cycle de vie publié par users-ws ; pour DELETED seul userId est renseigné
+public record UserEvent(
+        UserEventType type,
+        long userId,
+        String email,
+        String firstname,
+        String lastname,
+        Instant occurredAt
+) implements Serializable {
+}
@@ -0,0 +1,7 @@
+package com.appsdeveloperblog.photoapp.api.album.domain.model;
+
+import java.time.Instant;
+
+// Vue locale et compacte d'un utilisateur de users-ws ; active=false après suppression
+public record UserProjection(long id, String email, boolean active, Instant updatedAt) {
+}
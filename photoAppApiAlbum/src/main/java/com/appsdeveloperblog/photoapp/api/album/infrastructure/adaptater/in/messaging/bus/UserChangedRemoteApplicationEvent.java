@@ -0,0 +1,19 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.messaging.bus;
+
+import com.appsdeveloperblog.photoapp.api.album.domain.event.UserEvent;
+import lombok.Getter;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.List;
+
+// Même nom simple que l'événement émis par users-ws : c'est l'identifiant de type utilisé par Spring Cloud Bus
+@Getter
+public class UserChangedRemoteApplicationEvent extends RemoteApplicationEvent {
+
+    private List<UserEvent> events;
+
+    @SuppressWarnings("unused")
+    public UserChangedRemoteApplicationEvent() {
+        // Pour la désérialisation Jackson
+    }
+}
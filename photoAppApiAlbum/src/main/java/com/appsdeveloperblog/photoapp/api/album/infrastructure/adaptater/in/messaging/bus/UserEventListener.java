@@ -0,0 +1,26 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.messaging.bus;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.readmodel.UserReadModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class UserEventListener {
+
+    private final UserReadModel userReadModel;
+
+    public UserEventListener(UserReadModel userReadModel) {
+        this.userReadModel = userReadModel;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedRemoteApplicationEvent event) {
+        if (event.getEvents() == null) {
+            return;
+        }
+        log.debug("Applying {} user events from {}", event.getEvents().size(), event.getOriginService());
+        event.getEvents().forEach(userReadModel::apply);
+    }
+}
@@ -4,33 +4,56 @@ import com.appsdeveloperblog.photoapp.api.album.application.port.in.AlbumUseCase
 import com.appsdeveloperblog.photoapp.api.album.domain.model.Album;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.AlbumRequest;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.mapper.AlbumWebMapper;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @RestController
-@RequestMapping("/api/users/{userId}/albums")
+@RequestMapping("/api")
 @Slf4j
 public class AlbumController {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final AlbumUseCase albumUseCase;
     private final AlbumWebMapper albumWebMapper;
+    private final TrustedIdentityVerifier trustedIdentityVerifier;
 
-    public AlbumController(AlbumUseCase albumUseCase, AlbumWebMapper albumWebMapper) {
+    public AlbumController(AlbumUseCase albumUseCase, AlbumWebMapper albumWebMapper,
+                           TrustedIdentityVerifier trustedIdentityVerifier) {
         this.albumUseCase = albumUseCase;
         this.albumWebMapper = albumWebMapper;
+        this.trustedIdentityVerifier = trustedIdentityVerifier;
     }
 
-    @GetMapping
+    @GetMapping("/users/{userId}/albums")
     public ResponseEntity<List<Album>> findAllAlbumByUserId(@PathVariable("userId")  Long userId) {
         List<Album> allAlbumByUserId = albumUseCase.findAllAlbumByUserId(userId);
         return new ResponseEntity<>(allAlbumByUserId, HttpStatus.OK);
     }
 
-    @PostMapping
+    // Recherche groupée : une seule requête IN pour plusieurs utilisateurs.
+    // Réservée aux appels de service (identité signée, rôle SERVICE) : un token utilisateur ne donne
+    // accès qu'à ses propres albums, pas à ceux d'identifiants arbitraires
+    @GetMapping("/albums")
+    public ResponseEntity<List<Album>> findAllAlbumByUserIds(@RequestHeader(value = TrustedIdentityVerifier.IDENTITY_HEADER, required = false) String identity,
+                                                             @RequestParam("userIds") List<Long> userIds) {
+        if (!trustedIdentityVerifier.isService(identity)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Album> albums = albumUseCase.findAllAlbumByUserIds(new LinkedHashSet<>(userIds));
+        return new ResponseEntity<>(albums, HttpStatus.OK);
+    }
+
+    @PostMapping("/users/{userId}/albums")
     public ResponseEntity<Album> createAlbumById(@PathVariable("userId")  Long userId, @RequestBody AlbumRequest request) {
         var albumTemp = albumWebMapper.toDomain(request);
         var album = new Album(null, userId, albumTemp.name(), albumTemp.description());
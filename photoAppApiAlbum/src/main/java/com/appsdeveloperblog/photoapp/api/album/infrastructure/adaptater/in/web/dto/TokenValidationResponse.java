@@ -0,0 +1,3 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto;
+
+public record TokenValidationResponse(boolean valid, UserResponse user) { }
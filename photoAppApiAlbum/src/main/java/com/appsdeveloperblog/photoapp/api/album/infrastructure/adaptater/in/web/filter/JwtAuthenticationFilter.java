@@ -1,8 +1,18 @@
 package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.filter;
 
+import com.appsdeveloperblog.photoapp.api.album.domain.model.UserProjection;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserResponse;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security.JwtTokenUtil;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentity;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security.ValidationResultCache;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service.TokenValidationBatcher;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service.TokenValidationRejectedException;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service.UserServiceClient;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.readmodel.UserReadModel;
+import feign.FeignException;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,6 +21,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -18,6 +29,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +43,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserServiceClient userServiceClient;
 
+    @Autowired
+    private TrustedIdentityVerifier trustedIdentityVerifier;
+
+    @Autowired
+    private TokenValidationBatcher tokenValidationBatcher;
+
+    @Autowired
+    private UserReadModel userReadModel;
+
+    @Autowired
+    private ApplicationConfiguration applicationConfiguration;
+
+    @Autowired
+    private ValidationResultCache validationResultCache;
+
     private static final Pattern USER_ID_PATTERN = Pattern.compile("/api/users/(\\d+)/");
 
     @Override
@@ -41,13 +68,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String requestTokenHeader = request.getHeader("Authorization");
         final String requestPath = request.getRequestURI();
 
-        String username = null;
+        // Mode confiance : l'identité signée par la gateway évite l'appel à users-ws et le re-parsing du JWT
+        if (trustedIdentityVerifier.isEnabled() && SecurityContextHolder.getContext().getAuthentication() == null
+                && authenticateFromTrustedIdentity(request, requestPath)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Modèle de lecture local : le token est vérifié ici et l'utilisateur lu en mémoire, sans appel à users-ws
+        if (applicationConfiguration.getUserReadModel().isEnabled() && userReadModel.isReady()
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
+            Optional<Boolean> authenticated = authenticateFromReadModel(request, requestTokenHeader.substring(7), requestPath);
+            if (authenticated.isPresent()) {
+                chain.doFilter(request, response);
+                return;
+            }
+        }
+
+        Claims claims = null;
         String jwtToken = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                claims = jwtTokenUtil.parseClaims(jwtToken); // Un seul parsing pour le sujet, l'id et l'expiration
             } catch (IllegalArgumentException e) {
                  log.error("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
@@ -55,11 +100,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             Long userId  = extractUserIdFromUrl(requestPath);
-            // Valider le token avec le service User
-            UserResponse userInfo = userServiceClient.validateToken("Bearer " + jwtToken, userId);
+            if (userId == null) {
+                // Endpoints sans utilisateur dans l'URL (ex: /api/albums, réservé au rôle SERVICE par le contrôleur) :
+                // on valide le token pour son propre utilisateur
+                userId = jwtTokenUtil.getUserId(claims);
+            }
+            if (userId == null) {
+                // Ni utilisateur dans l'URL ni claim userId : rien à valider auprès de users-ws
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token without userId");
+                return;
+            }
+            // Valider le token avec le service User : résultat mis en cache, un seul appel en vol par (token, userId)
+            String token = jwtToken;
+            Long expectedUserId = userId;
+            UserResponse userInfo;
+            try {
+                userInfo = validationResultCache.get(token, userId,
+                        claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                        () -> validateRemotely(token, expectedUserId));
+            } catch (TokenValidationRejectedException e) {
+                // Regroupement saturé : refus immédiat, le client réessaie
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+                return;
+            }
 
             if (userInfo != null) {
                 //  CustomUserDetails userDetails = new CustomUserDetails(userInfo);
@@ -72,6 +139,77 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    // Regroupé avec les validations concurrentes si activé ; un 401 de users-ws est un refus, pas une panne
+    private UserResponse validateRemotely(String jwtToken, Long userId) {
+        if (tokenValidationBatcher.isEnabled()) {
+            return tokenValidationBatcher.validate(jwtToken, userId);
+        }
+        try {
+            return userServiceClient.validateToken("Bearer " + jwtToken, userId);
+        } catch (FeignException.Unauthorized e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return vide si l'utilisateur est inconnu localement (créé après le snapshot, événement pas encore reçu) :
+     * la validation passe alors par users-ws ; sinon le résultat de la vérification locale
+     */
+    private Optional<Boolean> authenticateFromReadModel(HttpServletRequest request, String jwtToken, String requestPath) {
+        Claims claims;
+        try {
+            claims = jwtTokenUtil.parseClaims(jwtToken);
+        } catch (Exception e) {
+            log.error("Invalid JWT Token");
+            return Optional.of(false);
+        }
+
+        Long userId = extractUserIdFromUrl(requestPath);
+        if (userId == null) {
+            userId = jwtTokenUtil.getUserId(claims);
+        }
+        if (userId == null) {
+            return Optional.of(false);
+        }
+
+        Optional<UserProjection> user = userReadModel.find(userId);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        // Même règle que users-ws /validate/{userId} : l'utilisateur existe et le token lui appartient
+        if (!user.get().active() || !claims.getSubject().equals(user.get().email())) {
+            return Optional.of(false);
+        }
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(new UserResponse(userId, user.get().email(), null, null), null, List.of());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return Optional.of(true);
+    }
+
+    private boolean authenticateFromTrustedIdentity(HttpServletRequest request, String requestPath) {
+        Optional<TrustedIdentity> identity = trustedIdentityVerifier.verify(request.getHeader(TrustedIdentityVerifier.IDENTITY_HEADER));
+        if (identity.isEmpty()) {
+            return false;
+        }
+
+        // Même règle que users-ws /validate/{userId} : le token doit appartenir à l'utilisateur de l'URL
+        Long userId = extractUserIdFromUrl(requestPath);
+        if (userId != null && !identity.get().userId().equals(userId)) {
+            return false;
+        }
+
+        UserResponse userInfo = new UserResponse(identity.get().userId(), identity.get().email(), null, null);
+        List<SimpleGrantedAuthority> authorities = identity.get().roles() == null ? List.of()
+                : identity.get().roles().stream().map(SimpleGrantedAuthority::new).toList();
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userInfo, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return true;
+    }
+
     /**
      * Extrait l'ID utilisateur depuis l'URL
      * Exemples:
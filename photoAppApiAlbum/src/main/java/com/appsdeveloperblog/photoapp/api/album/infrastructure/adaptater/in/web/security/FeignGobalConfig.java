@@ -0,0 +1,40 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.logging.SampledFeignLogger;
+import feign.Logger;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FeignGobalConfig {
+
+    // BASIC par défaut (ligne de requête, statut, durée) ; FULL ajoute les corps, à réserver au debug
+    @Bean
+    public Logger.Level feignLoggerLevel(ApplicationConfiguration applicationConfiguration) {
+        return applicationConfiguration.getFeignLogging().getLevel();
+    }
+
+    // Seule une fraction des appels est tracée, corps tronqués : plus de sérialisation complète à chaque appel
+    @Bean
+    public FeignLoggerFactory feignLoggerFactory(ApplicationConfiguration applicationConfiguration) {
+        ApplicationConfiguration.FeignLogging feignLogging = applicationConfiguration.getFeignLogging();
+        return type -> new SampledFeignLogger(type, feignLogging.getSampleRate(), feignLogging.getMaxBodyBytes());
+    }
+
+    // Occupation du pool HC5 (connexions louées, disponibles, en attente) sous httpcomponents.httpclient.pool.*
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
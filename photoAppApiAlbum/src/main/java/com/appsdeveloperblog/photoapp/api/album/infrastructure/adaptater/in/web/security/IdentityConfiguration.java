@@ -0,0 +1,32 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Signature et vérification de X-User-Identity (photoAppCommon), avec le secret partagé application.identity.secret
+@Configuration
+public class IdentityConfiguration {
+
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(ApplicationConfiguration applicationConfiguration) {
+        return new IdentityHeaderCodec(() -> applicationConfiguration.getIdentity().getSecret());
+    }
+
+    @Bean
+    public ServiceIdentitySigner serviceIdentitySigner(IdentityHeaderCodec identityHeaderCodec, ObjectMapper objectMapper,
+                                                       @Value("${spring.application.name}") String serviceName) {
+        return new ServiceIdentitySigner(identityHeaderCodec, objectMapper, serviceName);
+    }
+
+    @Bean
+    public TrustedIdentityVerifier trustedIdentityVerifier(ApplicationConfiguration applicationConfiguration,
+                                                           IdentityHeaderCodec identityHeaderCodec, ObjectMapper objectMapper) {
+        return new TrustedIdentityVerifier(applicationConfiguration::getIdentity, identityHeaderCodec, objectMapper);
+    }
+}
@@ -41,6 +41,19 @@ public class JwtTokenUtil {
         return getClaimFromToken(token, claims -> (List<String>) claims.get("roles"));
     }
 
+    // Signature et expiration vérifiées ; à réutiliser plutôt que de re-parser pour chaque claim
+    public Claims parseClaims(String token) {
+        return getAllClaimsFromToken(token);
+    }
+
+    public Long getUserId(Claims claims) {
+        Object userId = claims.get("userId");
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        return userId != null ? Long.valueOf(userId.toString()) : null;
+    }
+
     public boolean validateToken(String token, String expectedSubject) {
         try {
             Claims claims = getAllClaimsFromToken(token); //la valication de la date d'expiration est déjà faite
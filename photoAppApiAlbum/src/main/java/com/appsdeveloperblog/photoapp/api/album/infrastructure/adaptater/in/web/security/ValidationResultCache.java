@@ -0,0 +1,133 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache des résultats de validation (token, userId) renvoyés par users-ws.
+ * Un résultat positif expire avec le token, un refus au bout de negative-ttl.
+ * Les demandes concurrentes sur une même clé partagent le même appel distant (single-flight) ;
+ * un échec technique n'est pas mis en cache.
+ */
+@Component
+public class ValidationResultCache {
+
+    static final String CACHE_NAME = "album.token-validations";
+
+    private final ApplicationConfiguration applicationConfiguration;
+    private final AsyncCache<Key, ValidationResult> cache;
+    private final Counter coalesced;
+
+    public ValidationResultCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.applicationConfiguration = applicationConfiguration;
+        ApplicationConfiguration.ValidationCache config = applicationConfiguration.getValidationCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new ExpireAtResultExpiration())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+        this.coalesced = Counter.builder("cache.coalesced").tag("cache", CACHE_NAME)
+                .description("Validations ayant rejoint un appel déjà en cours")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userId         utilisateur attendu, obligatoire
+     * @param tokenExpiresAt date d'expiration du token (claim exp), borne de vie d'un résultat positif
+     * @param loader         appel distant ; retourne null si le token est refusé
+     * @return l'utilisateur validé ou null
+     */
+    public UserResponse get(String token, Long userId, Instant tokenExpiresAt, Supplier<UserResponse> loader) {
+        Objects.requireNonNull(userId, "userId");
+        ApplicationConfiguration.ValidationCache config = applicationConfiguration.getValidationCache();
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+
+        Key key = new Key(digest(token), userId);
+        CompletableFuture<ValidationResult> pending = new CompletableFuture<>();
+        CompletableFuture<ValidationResult> existing = cache.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            if (!existing.isDone()) {
+                coalesced.increment();
+            }
+            return join(existing);
+        }
+
+        // Ce thread a gagné la course : il fait l'appel et publie le résultat pour les autres
+        try {
+            UserResponse user = loader.get();
+            Instant expiresAt = user != null
+                    ? (tokenExpiresAt != null ? tokenExpiresAt : Instant.now().plus(config.getNegativeTtl()))
+                    : Instant.now().plus(config.getNegativeTtl());
+            pending.complete(new ValidationResult(user, expiresAt));
+            return user;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e); // retiré du cache par Caffeine
+            throw e;
+        }
+    }
+
+    private static UserResponse join(CompletableFuture<ValidationResult> future) {
+        try {
+            return future.join().user();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Key(String tokenDigest, long userId) {
+    }
+
+    private record ValidationResult(UserResponse user, Instant expiresAt) {
+    }
+
+    private static class ExpireAtResultExpiration implements Expiry<Key, ValidationResult> {
+
+        @Override
+        public long expireAfterCreate(Key key, ValidationResult value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, ValidationResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, ValidationResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security;
 
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.filter.JwtAuthenticationFilter;
-import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
-import org.springframework.boot.actuate.web.exchanges.InMemoryHttpExchangeRepository;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.exchanges.HttpExchangesEndpointExtension;
+import com.appsdeveloperblog.photoapp.common.exchanges.SampledHttpExchangeRepository;
+import com.appsdeveloperblog.photoapp.common.exchanges.SampledHttpExchangesFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangesEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -39,7 +44,20 @@ public class WebSecurityConfiguration {
     }
 
     @Bean
-    public HttpExchangeRepository httpExchangeRepository(){
-        return new InMemoryHttpExchangeRepository();
+    public SampledHttpExchangeRepository httpExchangeRepository(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry){
+        return new SampledHttpExchangeRepository(applicationConfiguration::getHttpExchanges, meterRegistry);
+    }
+
+    // Remplace le filtre de Spring Boot (ConditionalOnMissingBean) : échantillonnage avant toute copie
+    @Bean
+    public SampledHttpExchangesFilter httpExchangesFilter(SampledHttpExchangeRepository httpExchangeRepository,
+                                                          ApplicationConfiguration applicationConfiguration) {
+        return new SampledHttpExchangesFilter(httpExchangeRepository, applicationConfiguration::getHttpExchanges);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = HttpExchangesEndpoint.class)
+    public HttpExchangesEndpointExtension httpExchangesEndpointExtension(SampledHttpExchangeRepository httpExchangeRepository) {
+        return new HttpExchangesEndpointExtension(httpExchangeRepository);
     }
 }
@@ -0,0 +1,164 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationRequest;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Regroupe les validations de token concurrentes : les demandes arrivées pendant une courte fenêtre
+ * (quelques millisecondes) partent vers users-ws en un seul appel {@code POST /api/users/validate}.
+ * Les couples (token, userId) identiques d'un même lot ne sont envoyés qu'une fois.
+ * La file est bornée (queue-capacity, lue au démarrage) : pleine, la demande est refusée aussitôt
+ * ({@link TokenValidationRejectedException}) plutôt que d'accumuler des threads en attente.
+ * users-ws réserve cet appel aux identités de service : sans secret configuré, le regroupement reste inactif.
+ */
+@Component
+@Slf4j
+public class TokenValidationBatcher implements DisposableBean {
+
+    private final UserServiceClient userServiceClient;
+    private final ServiceIdentitySigner serviceIdentitySigner;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final BlockingQueue<PendingValidation> queue;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+
+    private volatile boolean running = true;
+
+    public TokenValidationBatcher(UserServiceClient userServiceClient, ServiceIdentitySigner serviceIdentitySigner,
+                                  ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.serviceIdentitySigner = serviceIdentitySigner;
+        this.applicationConfiguration = applicationConfiguration;
+        this.queue = new ArrayBlockingQueue<>(applicationConfiguration.getTokenValidation().getQueueCapacity());
+        this.batchSize = DistributionSummary.builder("users.validation.batch.size")
+                .description("Validations envoyées par appel à users-ws")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("users.validation.batch.rejected")
+                .description("Validations refusées car la file du regroupement est pleine")
+                .register(meterRegistry);
+        this.collector = Thread.ofPlatform().name("token-validation-batcher").daemon().start(this::collect);
+    }
+
+    public boolean isEnabled() {
+        return applicationConfiguration.getTokenValidation().isBatchEnabled() && serviceIdentitySigner.isAvailable();
+    }
+
+    /**
+     * Bloque jusqu'à la réponse du lot.
+     *
+     * @return l'utilisateur si le token est valide pour {@code userId}, sinon null
+     * @throws TokenValidationRejectedException si la file est pleine
+     */
+    public UserResponse validate(String token, Long userId) {
+        PendingValidation pending = new PendingValidation(new TokenValidationRequest(token, userId), new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new TokenValidationRejectedException("Token validation queue full");
+        }
+        try {
+            return pending.result().get(applicationConfiguration.getTokenValidation().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Annulée : le lot ne l'enverra pas si elle n'est pas encore partie
+            pending.result().cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Token validation interrupted", e);
+        } catch (TimeoutException e) {
+            pending.result().cancel(false);
+            throw new IllegalStateException("Token validation timed out", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void collect() {
+        while (running) {
+            try {
+                PendingValidation first = queue.take();
+                ApplicationConfiguration.TokenValidation config = applicationConfiguration.getTokenValidation();
+                List<PendingValidation> batch = new ArrayList<>();
+                batch.add(first);
+
+                // La fenêtre démarre à la première demande : une requête isolée n'attend jamais plus que window
+                long deadline = System.nanoTime() + config.getWindow().toNanos();
+                while (batch.size() < config.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingValidation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                sender.execute(() -> send(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void send(List<PendingValidation> batch) {
+        // Les demandes déjà abandonnées (délai dépassé, interruption) ne partent pas
+        Map<TokenValidationRequest, List<CompletableFuture<UserResponse>>> byRequest = new LinkedHashMap<>();
+        for (PendingValidation pending : batch) {
+            if (!pending.result().isDone()) {
+                byRequest.computeIfAbsent(pending.request(), key -> new ArrayList<>(1)).add(pending.result());
+            }
+        }
+        if (byRequest.isEmpty()) {
+            return;
+        }
+        List<TokenValidationRequest> requests = new ArrayList<>(byRequest.keySet());
+        batchSize.record(requests.size());
+
+        try {
+            String serviceIdentity = serviceIdentitySigner.sign()
+                    .orElseThrow(() -> new IllegalStateException("application.identity.secret is not configured"));
+            List<TokenValidationResponse> responses = userServiceClient.validateTokens(serviceIdentity, requests);
+            for (int i = 0; i < requests.size(); i++) {
+                TokenValidationResponse response = i < responses.size() ? responses.get(i) : null;
+                UserResponse user = response != null && response.valid() ? response.user() : null;
+                byRequest.get(requests.get(i)).forEach(result -> result.complete(user));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batched token validation failed for {} requests: {}", requests.size(), e.getMessage());
+            byRequest.values().forEach(results -> results.forEach(result -> result.completeExceptionally(e)));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        collector.interrupt();
+        sender.shutdown();
+    }
+
+    record PendingValidation(TokenValidationRequest request, CompletableFuture<UserResponse> result) {
+    }
+}
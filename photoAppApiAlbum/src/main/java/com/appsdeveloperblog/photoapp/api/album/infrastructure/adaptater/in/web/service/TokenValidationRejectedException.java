@@ -0,0 +1,10 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service;
+
+/**
+ * La file du regroupement des validations est pleine : la requête doit être refusée (503) plutôt que mise en attente.
+ */
+public class TokenValidationRejectedException extends RuntimeException {
+    public TokenValidationRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,35 @@
 package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service;
 
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationRequest;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationResponse;
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserSnapshotResponse;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "users-ws")
 public interface UserServiceClient {
 
     @GetMapping("/api/users/validate/{userId}")
     UserResponse validateToken(@RequestHeader("Authorization") String token, @PathVariable("userId")  Long userId);
+
+    // Une réponse par demande, dans le même ordre ; réservé à une identité de service signée
+    @PostMapping("/api/users/validate")
+    List<TokenValidationResponse> validateTokens(@RequestHeader(TrustedIdentityVerifier.IDENTITY_HEADER) String serviceIdentity,
+                                                 @RequestBody List<TokenValidationRequest> requests);
+
+    // Page suivante dans l'en-tête X-Next-Cursor ; réservé à une identité de service signée
+    @GetMapping("/api/users/snapshot")
+    ResponseEntity<List<UserSnapshotResponse>> getUserSnapshot(@RequestHeader(TrustedIdentityVerifier.IDENTITY_HEADER) String serviceIdentity,
+                                                               @RequestParam(value = "after", required = false) Long after,
+                                                               @RequestParam("limit") int limit);
 }
\ No newline at end of file
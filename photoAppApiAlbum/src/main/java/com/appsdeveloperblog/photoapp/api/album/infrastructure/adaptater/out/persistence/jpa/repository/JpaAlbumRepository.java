@@ -2,9 +2,15 @@ package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.out.pe
 
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.out.persistence.jpa.entity.AlbumEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface JpaAlbumRepository extends JpaRepository<AlbumEntity, Long> {
     List<AlbumEntity> findByUserId(Long userId);
+
+    @Query("select a from AlbumEntity a where a.userId in :userIds")
+    List<AlbumEntity> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
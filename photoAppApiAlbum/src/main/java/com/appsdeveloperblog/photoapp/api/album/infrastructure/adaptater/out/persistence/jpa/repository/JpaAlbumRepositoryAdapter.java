@@ -6,6 +6,7 @@ import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.out.per
 import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.out.persistence.jpa.mapper.AlbumEntityMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +38,11 @@ public class JpaAlbumRepositoryAdapter implements AlbumRepository {
         return jpaAlbumRepository.findByUserId(userId).stream().map(albumEntityMapper::toDto).toList();
     }
 
+    @Override
+    public List<Album> findAllByUserIds(Collection<Long> userIds) {
+        return jpaAlbumRepository.findByUserIdIn(userIds).stream().map(albumEntityMapper::toDto).toList();
+    }
+
     @Override
     public List<Album> findAll() {
         return jpaAlbumRepository.findAll().stream().map(albumEntityMapper::toDto).toList();
@@ -1,17 +1,33 @@
 package com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration;
 
+import com.appsdeveloperblog.photoapp.common.exchanges.HttpExchangesSettings;
+import com.appsdeveloperblog.photoapp.common.identity.IdentitySettings;
+import feign.Logger;
+import jakarta.validation.Valid;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = "application")
+// Pas de @RefreshScope (incompatible AOT) : le ConfigurationPropertiesRebinder de Spring Cloud
+// relie ce bean en place à chaque /busrefresh
 @Data
-@RefreshScope
+@Validated
 public class ApplicationConfiguration {
 
     private Token token;
+    @Valid
+    private IdentitySettings identity = new IdentitySettings();
+    private TokenValidation tokenValidation = new TokenValidation();
+    private UserReadModel userReadModel = new UserReadModel();
+    private ValidationCache validationCache = new ValidationCache();
+    private FeignLogging feignLogging = new FeignLogging();
+    private HttpExchangesSettings httpExchanges = new HttpExchangesSettings();
     private String loginUrlPath;
 
     @Data
@@ -19,4 +35,34 @@ public class ApplicationConfiguration {
         private long expirationTime;
         private String secret;
     }
+
+    @Data
+    public static class TokenValidation {
+        private boolean batchEnabled = false;
+        private Duration window = Duration.ofMillis(2);
+        private int maxBatchSize = 100;
+        private int queueCapacity = 1000;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class UserReadModel {
+        private boolean enabled = true;
+        private int snapshotPageSize = 1000;
+        private Duration reconcileInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class ValidationCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration negativeTtl = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class FeignLogging {
+        private double sampleRate = 0.01;
+        private int maxBodyBytes = 2048;
+        private Logger.Level level = Logger.Level.BASIC;
+    }
 }
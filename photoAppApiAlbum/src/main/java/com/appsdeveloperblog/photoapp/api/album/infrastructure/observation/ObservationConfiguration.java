@@ -0,0 +1,27 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.observation;
+
+import com.appsdeveloperblog.photoapp.common.observation.FeignLayerObservationFilter;
+import com.appsdeveloperblog.photoapp.common.observation.PortObservationAdvisor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Observation des ports, mappers et clients Feign (photoAppCommon), tag "layer" commun
+@Configuration
+public class ObservationConfiguration {
+
+    private static final String PORT_PACKAGE = "com.appsdeveloperblog.photoapp.api.album.application.port";
+
+    @Bean
+    public static PortObservationAdvisor portObservationAdvisor(ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PortObservationAdvisor(PORT_PACKAGE, observationRegistry, meterRegistry);
+    }
+
+    @Bean
+    public FeignLayerObservationFilter feignLayerObservationFilter() {
+        return new FeignLayerObservationFilter();
+    }
+}
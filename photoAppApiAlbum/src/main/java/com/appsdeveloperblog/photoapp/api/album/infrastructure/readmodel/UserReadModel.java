@@ -0,0 +1,100 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.readmodel;
+
+import com.appsdeveloperblog.photoapp.api.album.domain.event.UserEvent;
+import com.appsdeveloperblog.photoapp.api.album.domain.event.UserEventType;
+import com.appsdeveloperblog.photoapp.api.album.domain.model.UserProjection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Projection locale des utilisateurs (id, email, actif), alimentée par les événements de users-ws
+ * initialisée par un snapshot paginé et réconciliée périodiquement avec un nouveau snapshot. Un événement plus ancien que l'état connu est ignoré ;
+ * une suppression laisse une entrée inactive pour qu'un événement en retard ne la fasse pas revivre.
+ */
+@Component
+public class UserReadModel {
+
+    private final ConcurrentMap<Long, UserProjection> users = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UserReadModel(MeterRegistry meterRegistry) {
+        Gauge.builder("users.read-model.size", users, ConcurrentMap::size)
+                .description("Utilisateurs connus du modèle de lecture local")
+                .register(meterRegistry);
+        Gauge.builder("users.read-model.ready", this, model -> model.isReady() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // Tant que le snapshot n'est pas chargé, une absence ne signifie rien
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<UserProjection> find(long userId) {
+        return Optional.ofNullable(users.get(userId));
+    }
+
+    public void apply(UserEvent event) {
+        Instant occurredAt = event.occurredAt() != null ? event.occurredAt() : Instant.now();
+        users.merge(event.userId(), toProjection(event, occurredAt), (current, incoming) ->
+                incoming.updatedAt().isBefore(current.updatedAt()) ? current : incoming);
+    }
+
+    // Les lignes du snapshot sont plus anciennes que tout événement reçu : elles ne remplacent rien
+    void loadSnapshotEntry(long userId, String email) {
+        users.putIfAbsent(userId, new UserProjection(userId, email, true, Instant.EPOCH));
+    }
+
+    void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * Corrige les écarts avec un snapshot complet commencé à {@code startedAt} (événements perdus) :
+     * utilisateur absent ou différent localement, utilisateur local absent du snapshot. Une entrée modifiée
+     * par un événement depuis le début du snapshot n'est pas touchée ; un écart dû à une course entre
+     * page lue et événement est corrigé au passage suivant.
+     *
+     * @return nombre d'entrées corrigées
+     */
+    int reconcile(Map<Long, String> snapshot, Instant startedAt) {
+        AtomicInteger corrected = new AtomicInteger();
+        snapshot.forEach((userId, email) -> users.compute(userId, (id, current) -> {
+            if (current != null && (!current.updatedAt().isBefore(startedAt)
+                    || current.active() && Objects.equals(current.email(), email))) {
+                return current;
+            }
+            corrected.incrementAndGet();
+            return new UserProjection(id, email, true, startedAt);
+        }));
+        for (Long userId : users.keySet()) {
+            if (snapshot.containsKey(userId)) {
+                continue;
+            }
+            users.computeIfPresent(userId, (id, current) -> {
+                if (!current.active() || !current.updatedAt().isBefore(startedAt)) {
+                    return current;
+                }
+                corrected.incrementAndGet();
+                return new UserProjection(id, null, false, startedAt);
+            });
+        }
+        return corrected.get();
+    }
+
+    private static UserProjection toProjection(UserEvent event, Instant occurredAt) {
+        if (event.type() == UserEventType.DELETED) {
+            return new UserProjection(event.userId(), null, false, occurredAt);
+        }
+        return new UserProjection(event.userId(), event.email(), true, occurredAt);
+    }
+}
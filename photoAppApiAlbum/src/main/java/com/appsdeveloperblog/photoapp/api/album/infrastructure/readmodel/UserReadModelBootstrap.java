@@ -0,0 +1,134 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.readmodel;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserSnapshotResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service.UserServiceClient;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Charge le snapshot des utilisateurs au démarrage, en tâche de fond et page par page.
+ * En cas d'échec on réessaie avec un délai croissant ; en attendant, le filtre valide via users-ws.
+ * Le modèle est ensuite réconcilié tous les reconcile-interval avec un snapshot complet, pour rattraper
+ * les événements perdus (message Bus non livré, instance arrêtée pendant une écriture).
+ */
+@Component
+@Slf4j
+public class UserReadModelBootstrap {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final UserReadModel userReadModel;
+    private final UserServiceClient userServiceClient;
+    private final ServiceIdentitySigner serviceIdentitySigner;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final Counter reconciled;
+
+    public UserReadModelBootstrap(UserReadModel userReadModel, UserServiceClient userServiceClient,
+                                  ServiceIdentitySigner serviceIdentitySigner, ApplicationConfiguration applicationConfiguration,
+                                  MeterRegistry meterRegistry) {
+        this.userReadModel = userReadModel;
+        this.userServiceClient = userServiceClient;
+        this.serviceIdentitySigner = serviceIdentitySigner;
+        this.applicationConfiguration = applicationConfiguration;
+        this.reconciled = Counter.builder("users.read-model.reconciled")
+                .description("Entrées corrigées par la réconciliation avec le snapshot")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!applicationConfiguration.getUserReadModel().isEnabled()) {
+            return;
+        }
+        // Le snapshot est réservé aux identités de service : sans secret, users-ws répondrait 403 indéfiniment
+        if (!serviceIdentitySigner.isAvailable()) {
+            log.warn("User read model disabled: application.identity.secret is not configured");
+            return;
+        }
+        Thread.ofVirtual().name("user-read-model-bootstrap").start(this::run);
+    }
+
+    private void run() {
+        loadWithRetry();
+        Duration interval = applicationConfiguration.getUserReadModel().getReconcileInterval();
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException interrupted) {
+                return;
+            }
+            reconcile();
+        }
+    }
+
+    void reconcile() {
+        Instant startedAt = Instant.now();
+        try {
+            Map<Long, String> snapshot = new HashMap<>();
+            loadSnapshot(user -> snapshot.put(user.id(), user.email()));
+            int corrected = userReadModel.reconcile(snapshot, startedAt);
+            reconciled.increment(corrected);
+            if (corrected > 0) {
+                log.warn("User read model reconciled: {} entries corrected from snapshot", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.warn("User read model reconciliation failed, next attempt in {}: {}",
+                    applicationConfiguration.getUserReadModel().getReconcileInterval(), e.getMessage());
+        }
+    }
+
+    private void loadWithRetry() {
+        Duration backoff = Duration.ofSeconds(1);
+        while (!userReadModel.isReady()) {
+            try {
+                long loaded = loadSnapshot(user -> userReadModel.loadSnapshotEntry(user.id(), user.email()));
+                userReadModel.markReady();
+                log.info("User read model ready with {} users from snapshot", loaded);
+            } catch (RuntimeException e) {
+                log.warn("User snapshot failed, retrying in {}: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private long loadSnapshot(Consumer<UserSnapshotResponse> consumer) {
+        int pageSize = applicationConfiguration.getUserReadModel().getSnapshotPageSize();
+        long loaded = 0;
+        Long after = null;
+        do {
+            ResponseEntity<List<UserSnapshotResponse>> page = userServiceClient.getUserSnapshot(serviceIdentitySigner.sign()
+                    .orElseThrow(() -> new IllegalStateException("application.identity.secret is not configured")), after, pageSize);
+            List<UserSnapshotResponse> users = page.getBody() == null ? List.of() : page.getBody();
+            users.forEach(consumer);
+            loaded += users.size();
+
+            String nextCursor = page.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+            after = nextCursor != null ? Long.valueOf(nextCursor) : null;
+        } while (after != null);
+        return loaded;
+    }
+}
@@ -0,0 +1,88 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web;
+
+import com.appsdeveloperblog.photoapp.api.album.application.port.in.AlbumUseCase;
+import com.appsdeveloperblog.photoapp.api.album.domain.model.Album;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.mapper.AlbumWebMapper;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlbumControllerTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("test-identity-secret-0123456789ab".getBytes());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AlbumUseCase albumUseCase = mock(AlbumUseCase.class);
+    private ApplicationConfiguration configuration;
+    private IdentityHeaderCodec codec;
+    private AlbumController controller;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new ApplicationConfiguration();
+        configuration.getIdentity().setSecret(SECRET);
+        codec = new IdentityHeaderCodec(() -> configuration.getIdentity().getSecret());
+        controller = new AlbumController(albumUseCase, mock(AlbumWebMapper.class),
+                new TrustedIdentityVerifier(configuration::getIdentity, codec, objectMapper));
+    }
+
+    @Test
+    void batchLookupIsServedToServiceIdentity() {
+        List<Album> albums = List.of(new Album(1L, 7L, "name", "description"));
+        when(albumUseCase.findAllAlbumByUserIds(any())).thenReturn(albums);
+        String serviceIdentity = new ServiceIdentitySigner(codec, objectMapper, "users-ws").sign().orElseThrow();
+
+        var response = controller.findAllAlbumByUserIds(serviceIdentity, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(albums);
+    }
+
+    @Test
+    void batchLookupIsForbiddenWithoutIdentity() {
+        var response = controller.findAllAlbumByUserIds(null, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(albumUseCase, never()).findAllAlbumByUserIds(any());
+    }
+
+    @Test
+    void batchLookupIsForbiddenToEndUserIdentity() throws Exception {
+        String userIdentity = codec.encode(objectMapper.writeValueAsBytes(Map.of(
+                "uid", 7L, "sub", "user@test.com", "roles", List.of("USER"),
+                "exp", Instant.now().getEpochSecond() + 60)));
+
+        var response = controller.findAllAlbumByUserIds(userIdentity, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(albumUseCase, never()).findAllAlbumByUserIds(any());
+    }
+
+    @Test
+    void batchLookupIsForbiddenWhenNoSecretIsConfigured() {
+        String serviceIdentity = new ServiceIdentitySigner(codec, objectMapper, "users-ws").sign().orElseThrow();
+        configuration.getIdentity().setSecret("");
+
+        var response = controller.findAllAlbumByUserIds(serviceIdentity, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(albumUseCase, never()).findAllAlbumByUserIds(any());
+    }
+}
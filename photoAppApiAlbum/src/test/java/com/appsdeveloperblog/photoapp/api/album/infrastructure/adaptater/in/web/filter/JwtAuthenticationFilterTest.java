@@ -0,0 +1,63 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.filter;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security.JwtTokenUtil;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.security.ValidationResultCache;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtTokenUtil jwtTokenUtil = mock(JwtTokenUtil.class);
+    private final ValidationResultCache validationResultCache = mock(ValidationResultCache.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration configuration = new ApplicationConfiguration();
+        configuration.getUserReadModel().setEnabled(false);
+        ReflectionTestUtils.setField(filter, "jwtTokenUtil", jwtTokenUtil);
+        ReflectionTestUtils.setField(filter, "trustedIdentityVerifier", mock(TrustedIdentityVerifier.class));
+        ReflectionTestUtils.setField(filter, "applicationConfiguration", configuration);
+        ReflectionTestUtils.setField(filter, "validationResultCache", validationResultCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithoutUserIdIsRejectedBeforeTheValidationCache() throws Exception {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("user@test.com");
+        when(jwtTokenUtil.parseClaims("token")).thenReturn(claims);
+        when(jwtTokenUtil.getUserId(claims)).thenReturn(null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/albums");
+        request.addHeader("Authorization", "Bearer token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        verifyNoInteractions(validationResultCache);
+        verify(chain, never()).doFilter(any(), any());
+    }
+}
@@ -0,0 +1,119 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationRequest;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.TokenValidationResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.album.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class TokenValidationBatcherTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("test-identity-secret-0123456789ab".getBytes());
+    private static final UserResponse USER = new UserResponse(7L, "user@test.com", "Jane", "Doe");
+
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final ApplicationConfiguration configuration = new ApplicationConfiguration();
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec(() -> configuration.getIdentity().getSecret());
+    private TokenValidationBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.destroy();
+    }
+
+    @Test
+    void batchingIsDisabledByDefault() {
+        batcher = newBatcher();
+
+        assertThat(batcher.isEnabled()).isFalse();
+    }
+
+    @Test
+    void batchingStaysOffWithoutAServiceIdentityToPresent() {
+        configuration.getTokenValidation().setBatchEnabled(true);
+        batcher = newBatcher();
+
+        assertThat(batcher.isEnabled()).isFalse();
+        configuration.getIdentity().setSecret(SECRET);
+        assertThat(batcher.isEnabled()).isTrue();
+    }
+
+    @Test
+    void concurrentValidationsShareOneCallAndIdenticalRequestsAreSentOnce() throws Exception {
+        configuration.getIdentity().setSecret(SECRET);
+        configuration.getTokenValidation().setWindow(Duration.ofMillis(200));
+        when(userServiceClient.validateTokens(anyString(), anyList())).thenAnswer(invocation ->
+                ((List<TokenValidationRequest>) invocation.getArgument(1)).stream()
+                        .map(request -> new TokenValidationResponse(request.token().equals("good"), USER))
+                        .toList());
+        batcher = newBatcher();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<UserResponse> first = callers.submit(() -> batcher.validate("good", 7L));
+            Future<UserResponse> second = callers.submit(() -> batcher.validate("good", 7L));
+            Future<UserResponse> third = callers.submit(() -> batcher.validate("bad", 7L));
+
+            assertThat(first.get()).isEqualTo(USER);
+            assertThat(second.get()).isEqualTo(USER);
+            assertThat(third.get()).isNull();
+        }
+        ArgumentCaptor<List<TokenValidationRequest>> sent = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<String> identity = ArgumentCaptor.forClass(String.class);
+        verify(userServiceClient, times(1)).validateTokens(identity.capture(), sent.capture());
+        assertThat(codec.decode(identity.getValue())).isPresent();
+        assertThat(sent.getValue()).containsExactly(new TokenValidationRequest("good", 7L), new TokenValidationRequest("bad", 7L));
+    }
+
+    @Test
+    void fullQueueFailsFast() {
+        configuration.getTokenValidation().setQueueCapacity(1);
+        configuration.getTokenValidation().setTimeout(Duration.ofMillis(10));
+        batcher = newBatcher();
+        // Collecteur arrêté : la file ne se vide plus
+        batcher.destroy();
+
+        assertThatThrownBy(() -> batcher.validate("token", 7L)).hasMessageContaining("timed out");
+        assertThatThrownBy(() -> batcher.validate("token", 7L)).isInstanceOf(TokenValidationRejectedException.class);
+    }
+
+    @Test
+    void abandonedValidationsAreNotSent() {
+        batcher = newBatcher();
+        CompletableFuture<UserResponse> timedOut = new CompletableFuture<>();
+        timedOut.cancel(false);
+
+        batcher.send(List.of(new TokenValidationBatcher.PendingValidation(new TokenValidationRequest("token", 7L), timedOut)));
+
+        verify(userServiceClient, never()).validateTokens(anyString(), anyList());
+    }
+
+    private TokenValidationBatcher newBatcher() {
+        return new TokenValidationBatcher(userServiceClient, new ServiceIdentitySigner(codec, new ObjectMapper(), "album-ws"),
+                configuration, new SimpleMeterRegistry());
+    }
+}
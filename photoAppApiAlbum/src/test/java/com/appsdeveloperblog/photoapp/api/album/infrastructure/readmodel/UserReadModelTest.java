@@ -0,0 +1,57 @@
+package com.appsdeveloperblog.photoapp.api.album.infrastructure.readmodel;
+
+import com.appsdeveloperblog.photoapp.api.album.domain.event.UserEvent;
+import com.appsdeveloperblog.photoapp.api.album.domain.event.UserEventType;
+import com.appsdeveloperblog.photoapp.api.album.domain.model.UserProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserReadModelTest {
+
+    private final UserReadModel model = new UserReadModel(new SimpleMeterRegistry());
+
+    @Test
+    void reconcileRestoresUserWhoseCreationWasMissed() {
+        Instant startedAt = Instant.now();
+
+        assertThat(model.reconcile(Map.of(1L, "jane@test.com"), startedAt)).isEqualTo(1);
+
+        assertThat(model.find(1L)).contains(new UserProjection(1L, "jane@test.com", true, startedAt));
+    }
+
+    @Test
+    void reconcileDeactivatesUserWhoseDeletionWasMissed() {
+        model.loadSnapshotEntry(1L, "jane@test.com");
+        Instant startedAt = Instant.now();
+
+        assertThat(model.reconcile(Map.of(), startedAt)).isEqualTo(1);
+
+        assertThat(model.find(1L)).hasValueSatisfying(user -> assertThat(user.active()).isFalse());
+    }
+
+    @Test
+    void reconcileFixesEmailWhoseUpdateWasMissed() {
+        model.loadSnapshotEntry(1L, "old@test.com");
+
+        assertThat(model.reconcile(Map.of(1L, "new@test.com"), Instant.now())).isEqualTo(1);
+
+        assertThat(model.find(1L)).hasValueSatisfying(user -> assertThat(user.email()).isEqualTo("new@test.com"));
+    }
+
+    @Test
+    void eventNewerThanTheSnapshotIsKept() {
+        Instant startedAt = Instant.now();
+        model.apply(new UserEvent(UserEventType.CREATED, 2L, "late@test.com", null, null, startedAt.plusSeconds(1)));
+        model.apply(new UserEvent(UserEventType.UPDATED, 1L, "new@test.com", null, null, startedAt.plusSeconds(1)));
+
+        assertThat(model.reconcile(Map.of(1L, "old@test.com"), startedAt)).isZero();
+
+        assertThat(model.find(1L)).hasValueSatisfying(user -> assertThat(user.email()).isEqualTo("new@test.com"));
+        assertThat(model.find(2L)).hasValueSatisfying(user -> assertThat(user.active()).isTrue());
+    }
+}
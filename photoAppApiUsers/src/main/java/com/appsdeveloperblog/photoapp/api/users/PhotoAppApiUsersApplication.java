@@ -1,13 +1,23 @@
 package com.appsdeveloperblog.photoapp.api.users;
 
+import com.appsdeveloperblog.photoapp.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.appsdeveloperblog.photoapp.common.virtualthreads.VirtualThreadConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 @EnableFeignClients
+@EnableScheduling
+@Import(VirtualThreadConfiguration.class) // Conditionnée par spring.threads.virtual.enabled
+@RemoteApplicationEventScan(basePackages = "com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.bus")
 public class PhotoAppApiUsersApplication {
 
 	public static void main(String[] args) {
@@ -1,16 +1,25 @@
 package com.appsdeveloperblog.photoapp.api.users.application.port.in;
 
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserPage;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-public interface UserUseCase extends UserDetailsService {
+public interface UserUseCase extends UserDetailsService, UserDetailsPasswordService {
     User createUser(User user);
     Optional<User> findUserById(long id);
     Optional<User> findUserByEmail(String email);
+    List<User> findUsersByIds(Collection<Long> ids);
     List<User> findAllUser();
+    UserPage findUserPage(Long afterId, int limit);
+    void exportAllUsers(Consumer<User> consumer);
+    List<UserImportStatus> importUsers(List<User> users);
     void deleteUserById(long id);
 
 }
@@ -0,0 +1,10 @@
+package com.appsdeveloperblog.photoapp.api.users.application.port.out;
+
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+
+import java.util.List;
+
+// Doit être appelé dans la transaction de l'écriture : l'événement est enregistré avec elle, pas envoyé
+public interface UserEventPublisher {
+    void publish(List<UserEvent> events);
+}
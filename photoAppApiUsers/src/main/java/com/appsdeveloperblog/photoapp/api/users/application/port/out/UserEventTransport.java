@@ -0,0 +1,10 @@
+package com.appsdeveloperblog.photoapp.api.users.application.port.out;
+
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+
+import java.util.List;
+
+// Envoi effectif d'un lot d'événements ; une exception laisse le lot dans l'outbox pour un nouvel essai
+public interface UserEventTransport {
+    void send(List<UserEvent> events);
+}
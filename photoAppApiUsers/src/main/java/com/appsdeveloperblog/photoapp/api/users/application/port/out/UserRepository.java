@@ -1,14 +1,24 @@
 package com.appsdeveloperblog.photoapp.api.users.application.port.out;
 
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository {
     User save(User user);
     Optional<User> findById(long id);
     Optional<User> findByEmail(String email);
+    List<User> findAllByIds(Collection<Long> ids);
     List<User> findAll();
+    // Pagination par clé : les utilisateurs d'id > afterId, triés par id
+    List<User> findAllAfter(long afterId, int limit);
+    // À consommer dans une transaction et à fermer
+    Stream<User> streamAll();
+    // Insertion par lot ; un statut par utilisateur, dans l'ordre de la liste
+    List<UserImportStatus> saveAllNew(List<User> users);
     void deleteUser(long id);
 }
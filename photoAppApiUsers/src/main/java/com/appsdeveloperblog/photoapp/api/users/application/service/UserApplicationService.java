@@ -5,13 +5,19 @@ import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserReposit
 import com.appsdeveloperblog.photoapp.api.users.domain.exception.EmailAlreadyExistsException;
 import com.appsdeveloperblog.photoapp.api.users.domain.exception.UserNotFoundException;
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserPage;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserApplicationService implements UserUseCase {
@@ -46,11 +52,47 @@ public class UserApplicationService implements UserUseCase {
                 .orElseThrow(() -> new UserNotFoundException("for email : " + email)));
     }
 
+    @Override
+    public List<User> findUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllByIds(ids);
+    }
+
     @Override
     public List<User> findAllUser() {
         return userRepository.findAll();
     }
 
+    @Override
+    public UserPage findUserPage(Long afterId, int limit) {
+        // Une ligne de plus que demandé pour savoir s'il reste une page
+        List<User> users = userRepository.findAllAfter(afterId == null ? 0L : afterId, limit + 1);
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, limit);
+        return new UserPage(page, page.get(limit - 1).id());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
+    }
+
+    // Pas de SELECT préalable par email : les doublons sont détectés par la contrainte d'unicité
+    @Override
+    public List<UserImportStatus> importUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.saveAllNew(users);
+    }
+
     @Override
     public void deleteUserById(long id) {
         userRepository.deleteUser(id);
@@ -71,4 +113,16 @@ public class UserApplicationService implements UserUseCase {
                 Collections.emptyList()             // authorities (empty for now)
         );
     }
+
+    // Appelé par Spring Security après un login réussi quand le hash doit être recalculé (coût BCrypt modifié)
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncryptedPassword) {
+        User user = findUserByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        userRepository.save(new User(user.id(), user.firstname(), user.lastname(), user.email(), newEncryptedPassword));
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newEncryptedPassword)
+                .build();
+    }
 }
@@ -0,0 +1,33 @@
+package com.appsdeveloperblog.photoapp.api.users.domain.event;
+
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Événement publié à chaque écriture d'un utilisateur ; pour DELETED seul userId est renseigné
+public record UserEvent(
+        UserEventType type,
+        long userId,
+        String email,
+        String firstname,
+        String lastname,
+        Instant occurredAt
+) implements Serializable {
+
+    public static UserEvent created(User user) {
+        return of(UserEventType.CREATED, user);
+    }
+
+    public static UserEvent updated(User user) {
+        return of(UserEventType.UPDATED, user);
+    }
+
+    public static UserEvent deleted(long userId) {
+        return new UserEvent(UserEventType.DELETED, userId, null, null, null, Instant.now());
+    }
+
+    private static UserEvent of(UserEventType type, User user) {
+        return new UserEvent(type, user.id(), user.email(), user.firstname(), user.lastname(), Instant.now());
+    }
+}
@@ -0,0 +1,7 @@
+package com.appsdeveloperblog.photoapp.api.users.domain.event;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
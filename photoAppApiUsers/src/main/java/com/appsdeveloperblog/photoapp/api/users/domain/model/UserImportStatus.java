@@ -0,0 +1,8 @@
+package com.appsdeveloperblog.photoapp.api.users.domain.model;
+
+public enum UserImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.appsdeveloperblog.photoapp.api.users.domain.model;
+
+import java.util.List;
+
+/**
+ * Page d'utilisateurs triés par id. {@code nextCursor} est l'id à passer pour la page suivante,
+ * null s'il n'y en a plus.
+ */
+public record UserPage(
+        List<User> users,
+        Long nextCursor
+) {
+}
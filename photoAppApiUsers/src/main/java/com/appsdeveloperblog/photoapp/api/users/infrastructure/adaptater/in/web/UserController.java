@@ -2,38 +2,102 @@ package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web
 
 import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
-import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumResponse;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserPage;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.TokenValidationRequest;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.TokenValidationResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserDetailResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserImportSummaryResponse;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserRequest;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserSnapshotResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.filter.JwtRequestFilter;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.mapper.UserWebMapper;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.JwtTokenUtil;
-import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.AlbumServiceClient;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.AlbumServiceSyncClient;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.CachingAlbumClient;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.UserImportService;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.AsyncConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentity;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 @Slf4j
 public class UserController {
 
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final Environment environment;
     private final UserUseCase userUseCase;
     private final UserWebMapper userWebMapper;
     private final JwtTokenUtil jwtTokenUtil;
-    private final AlbumServiceClient albumServiceClient;
+    private final AlbumServiceSyncClient albumServiceSyncClient;
+    private final CachingAlbumClient cachingAlbumClient;
+    private final Executor ioTaskExecutor;
+    private final UserImportService userImportService;
+    private final TrustedIdentityVerifier trustedIdentityVerifier;
+    private final ServiceIdentitySigner serviceIdentitySigner;
+    private final ObjectWriter ndjsonWriter;
 
-    public UserController(Environment environment, UserUseCase userUseCase, UserWebMapper userWebMapper, JwtTokenUtil jwtTokenUtil, AlbumServiceClient albumServiceClient) {
+    public UserController(Environment environment, UserUseCase userUseCase, UserWebMapper userWebMapper, JwtTokenUtil jwtTokenUtil,
+                          AlbumServiceSyncClient albumServiceSyncClient, CachingAlbumClient cachingAlbumClient,
+                          @Qualifier(AsyncConfiguration.IO_TASK_EXECUTOR) Executor ioTaskExecutor, UserImportService userImportService,
+                          TrustedIdentityVerifier trustedIdentityVerifier, ServiceIdentitySigner serviceIdentitySigner,
+                          ObjectMapper objectMapper) {
         this.environment = environment;
         this.userUseCase = userUseCase;
         this.userWebMapper = userWebMapper;
         this.jwtTokenUtil = jwtTokenUtil;
-        this.albumServiceClient = albumServiceClient;
+        this.albumServiceSyncClient = albumServiceSyncClient;
+        this.cachingAlbumClient = cachingAlbumClient;
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.userImportService = userImportService;
+        this.trustedIdentityVerifier = trustedIdentityVerifier;
+        this.serviceIdentitySigner = serviceIdentitySigner;
+        // Une ligne JSON par objet, sans flush ni fermeture du flux à chaque écriture ;
+        // l'ObjectMapper de Spring garde la configuration Jackson de l'application (dates, modules...)
+        this.ndjsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/status/check")
@@ -42,15 +106,24 @@ public class UserController {
     }
 
     @GetMapping("/validate/{userId}")
-    public ResponseEntity<UserResponse> validateToken(@RequestHeader("Authorization") String token, @PathVariable Long userId) {
+    public ResponseEntity<UserResponse> validateToken(@RequestHeader("Authorization") String token, @PathVariable Long userId,
+                                                      @RequestAttribute(name = JwtRequestFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
         try {
-            String jwtToken = token.substring(7); // Remove "Bearer "
-//            String email = jwtTokenUtil.getUsernameFromToken(jwtToken);
-//            List<String> roles = jwtTokenUtil.getRolesFromToken(jwtToken);
+            // Claims déjà vérifiés par JwtRequestFilter : pas de re-parsing
+            if (claims != null && jwtTokenUtil.isStatelessPrincipalEnabled()) {
+                if (userId.equals(jwtTokenUtil.getUserId(claims))) {
+                    return ResponseEntity.ok(new UserResponse(userId, claims.getSubject(),
+                            claims.get("firstname", String.class), claims.get("lastname", String.class)));
+                }
+                return ResponseEntity.status(401).build();
+            }
 
             var user = userUseCase.findUserById(userId).orElseThrow();
 
-            if (jwtTokenUtil.validateToken(jwtToken, user.email())) {
+            boolean valid = claims != null
+                    ? user.email().equals(claims.getSubject())
+                    : jwtTokenUtil.validateToken(token.substring(7), user.email()); // Remove "Bearer "
+            if (valid) {
                 return ResponseEntity.ok(userWebMapper.fromDomain(user));
             }
         } catch (Exception e) {
@@ -59,6 +132,66 @@ public class UserController {
         return ResponseEntity.status(401).build();
     }
 
+    // Validation groupée pour album-ws : un parsing JWT par token mais une seule requête en base pour tout le lot.
+    // Réservée aux identités de service, vérifiées avant tout parsing : l'endpoint n'est ni un oracle à tokens
+    // ni un moyen de faire parser des centaines de JWT par requête
+    @PostMapping("/validate")
+    public ResponseEntity<List<TokenValidationResponse>> validateTokens(@RequestHeader(value = TrustedIdentityVerifier.IDENTITY_HEADER, required = false) String identity,
+                                                                        @RequestBody List<TokenValidationRequest> requests) {
+        if (!trustedIdentityVerifier.isService(identity)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Claims> claimsList = new ArrayList<>(requests.size());
+        Set<Long> userIds = new HashSet<>();
+        for (TokenValidationRequest request : requests) {
+            Claims claims = parseClaimsOrNull(request.token());
+            claimsList.add(claims);
+            if (claims != null && request.userId() != null) {
+                userIds.add(request.userId());
+            }
+        }
+
+        Map<Long, User> usersById = jwtTokenUtil.isStatelessPrincipalEnabled() || userIds.isEmpty()
+                ? Map.of()
+                : userUseCase.findUsersByIds(userIds).stream().collect(Collectors.toMap(User::id, Function.identity()));
+
+        List<TokenValidationResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            responses.add(validate(requests.get(i).userId(), claimsList.get(i), usersById));
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    private TokenValidationResponse validate(Long userId, Claims claims, Map<Long, User> usersById) {
+        if (claims == null || userId == null) {
+            return TokenValidationResponse.INVALID;
+        }
+        if (jwtTokenUtil.isStatelessPrincipalEnabled()) {
+            return userId.equals(jwtTokenUtil.getUserId(claims))
+                    ? new TokenValidationResponse(true, new UserResponse(userId, claims.getSubject(),
+                            claims.get("firstname", String.class), claims.get("lastname", String.class)))
+                    : TokenValidationResponse.INVALID;
+        }
+        User user = usersById.get(userId);
+        return user != null && Objects.equals(user.email(), claims.getSubject())
+                ? new TokenValidationResponse(true, userWebMapper.fromDomain(user))
+                : TokenValidationResponse.INVALID;
+    }
+
+    private Claims parseClaimsOrNull(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            return jwtTokenUtil.parseClaims(token.startsWith("Bearer ") ? token.substring(7) : token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
     @PostMapping
     public ResponseEntity<UserResponse> createUser(@RequestBody UserRequest request) {
@@ -67,28 +200,159 @@ public class UserController {
         return new ResponseEntity<>(userWebMapper.fromDomain(createdUser), HttpStatus.CREATED);
     }
 
+    // Pagination par clé (id), sur demande (after ou limit) : le curseur de la page suivante est renvoyé dans
+    // l'en-tête X-Next-Cursor. Sans aucun des deux, liste complète comme avant, pour les clients existants ;
+    // /export reste la voie pour les gros volumes
     @GetMapping
-    public ResponseEntity<List<UserResponse>> findAllUser() {
-        // User user = UserWebMapper.toDomain(request);
-        List<User> users = userUseCase.findAllUser();
-        return new ResponseEntity<>(users.stream().map(userWebMapper::fromDomain).toList(), HttpStatus.OK);
+    public ResponseEntity<List<UserResponse>> findAllUser(@RequestParam(value = "after", required = false) Long after,
+                                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return new ResponseEntity<>(userUseCase.findAllUser().stream().map(userWebMapper::fromDomain).toList(), HttpStatus.OK);
+        }
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        UserPage page = userUseCase.findUserPage(after, pageSize);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.nextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return new ResponseEntity<>(page.users().stream().map(userWebMapper::fromDomain).toList(), headers, HttpStatus.OK);
+    }
+
+    // Snapshot paginé (id, email) pour les modèles de lecture des autres services, ex: album-ws au démarrage
+    @GetMapping("/snapshot")
+    public ResponseEntity<List<UserSnapshotResponse>> snapshot(@RequestHeader(value = TrustedIdentityVerifier.IDENTITY_HEADER, required = false) String identity,
+                                                               @RequestParam(value = "after", required = false) Long after,
+                                                               @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        if (!trustedIdentityVerifier.isService(identity)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        UserPage page = userUseCase.findUserPage(after, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        HttpHeaders headers = new HttpHeaders();
+        if (page.nextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return new ResponseEntity<>(page.users().stream().map(user -> new UserSnapshotResponse(user.id(), user.email())).toList(),
+                headers, HttpStatus.OK);
+    }
+
+    // Export complet en NDJSON : les lignes sont écrites au fil de la lecture, la mémoire reste constante
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            userUseCase.exportAllUsers(user -> writeLine(outputStream, userWebMapper.fromDomain(user)));
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Import en masse (NDJSON ou CSV avec en-tête) : une ligne de résultat par ligne lue, puis un résumé
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body,
+                            HttpServletResponse response) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        UserImportSummaryResponse summary = userImportService.importUsers(body, format, result -> writeLine(outputStream, result));
+        writeLine(outputStream, Map.of("summary", summary));
+        outputStream.flush();
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            ndjsonWriter.writeValue(outputStream, value);
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Recherche groupée : une requête IN côté users et un seul appel album-ws, au lieu d'un aller-retour par utilisateur.
+    // album-ws est appelé avec l'identité de service de users-ws : un utilisateur ne peut demander que son propre id,
+    // les identifiants arbitraires sont réservés aux appelants qui présentent eux-mêmes une identité de service
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDetailResponse>> findUsersByIds(@RequestHeader("Authorization") String token,
+                                                                   @RequestHeader(value = TrustedIdentityVerifier.IDENTITY_HEADER, required = false) String identity,
+                                                                   @RequestAttribute(name = JwtRequestFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims,
+                                                                   @RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!trustedIdentityVerifier.isService(identity)) {
+            Long callerId = callerId(identity, claims);
+            if (callerId == null || !ids.stream().allMatch(callerId::equals)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+        List<User> users = userUseCase.findUsersByIds(new LinkedHashSet<>(ids));
+        if (users.isEmpty()) {
+            return new ResponseEntity<>(List.of(), HttpStatus.OK);
+        }
+
+        // album-ws réserve la recherche groupée aux identités de service ; sans secret configuré,
+        // pas d'identité à présenter : les albums sont signalés indisponibles sans appeler album-ws
+        List<Long> userIds = users.stream().map(User::id).toList();
+        Map<Long, UserAlbums> albumsByUserId = serviceIdentitySigner.sign()
+                .map(serviceIdentity -> albumServiceSyncClient.getAlbumsByUserIds(token, serviceIdentity, userIds))
+                .orElse(Map.of());
+
+        List<UserDetailResponse> userDetails = users.stream()
+                .map(userWebMapper::fromDomain)
+                .map(userResponse -> {
+                    UserAlbums userAlbums = albumsByUserId.getOrDefault(userResponse.id(), UserAlbums.unavailable());
+                    return UserDetailResponse.builder()
+                            .id(userResponse.id())
+                            .email(userResponse.email())
+                            .firstname(userResponse.firstname())
+                            .lastname(userResponse.lastname())
+                            .albums(userAlbums.albums())
+                            .albumsStatus(userAlbums.status())
+                            .build();
+                })
+                .toList();
+        return new ResponseEntity<>(userDetails, HttpStatus.OK);
+    }
+
+    // Identifiant de l'appelant : identité signée par la gateway (mode confiance) ou claims du JWT vérifié par JwtRequestFilter
+    private Long callerId(String identity, Claims claims) {
+        if (trustedIdentityVerifier.isEnabled()) {
+            Optional<TrustedIdentity> trusted = trustedIdentityVerifier.verify(identity);
+            if (trusted.isPresent()) {
+                return trusted.get().userId();
+            }
+        }
+        return claims != null ? jwtTokenUtil.getUserId(claims) : null;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDetailResponse> getUserDetails(@RequestHeader("Authorization") String token, @PathVariable("id") Long id) {
+    public CompletableFuture<ResponseEntity<UserDetailResponse>> getUserDetails(@RequestHeader("Authorization") String token,
+                                                                                @RequestHeader(value = TrustedIdentityVerifier.IDENTITY_HEADER, required = false) String identity,
+                                                                                @PathVariable("id") Long id) {
 
+        // L'utilisateur et ses albums sont chargés en parallèle ; le thread Tomcat est libéré pendant l'attente
         log.debug("Before calling album service with token: {}", token);
-        final User user = userUseCase.findUserById(id).orElseThrow();
-        final UserResponse userResponse = userWebMapper.fromDomain(user);
-        List<AlbumResponse> albumResponses =  albumServiceClient.getAlbums(token, id);
-        log.debug("After calling album service, received {} albums for user id: {}", albumResponses.size(), id);
-
-        return new ResponseEntity<>(UserDetailResponse.builder()
-                .id(userResponse.id())
-                .email(userResponse.email())
-                .firstname(userResponse.firstname())
-                .lastname(userResponse.lastname())
-                .albums(albumResponses)
-                .build(), HttpStatus.OK);
+        CompletableFuture<User> userFuture = CompletableFuture.supplyAsync(
+                () -> userUseCase.findUserById(id).orElseThrow(), ioTaskExecutor);
+        CompletableFuture<UserAlbums> albumsFuture = cachingAlbumClient.getAlbums(token, identity, id);
+
+        return userFuture.thenCombine(albumsFuture, (user, userAlbums) -> {
+            log.debug("After calling album service, received {} {} albums for user id: {}", userAlbums.albums().size(), userAlbums.status(), id);
+            final UserResponse userResponse = userWebMapper.fromDomain(user);
+
+            return new ResponseEntity<>(UserDetailResponse.builder()
+                    .id(userResponse.id())
+                    .email(userResponse.email())
+                    .firstname(userResponse.firstname())
+                    .lastname(userResponse.lastname())
+                    .albums(userAlbums.albums())
+                    .albumsStatus(userAlbums.status())
+                    .build(), HttpStatus.OK);
+        });
     }
 }
@@ -0,0 +1,8 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// Fraîcheur des albums renvoyés dans le détail utilisateur
+public enum AlbumsStatus {
+    FRESH,       // Réponse d'album-ws, ou copie locale plus jeune que le soft TTL
+    STALE,       // Dernière liste connue, servie pendant un incident album-ws ou en attente de rafraîchissement
+    UNAVAILABLE  // album-ws indisponible et aucune copie locale
+}
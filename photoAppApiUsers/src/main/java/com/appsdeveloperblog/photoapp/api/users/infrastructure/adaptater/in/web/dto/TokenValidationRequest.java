@@ -0,0 +1,4 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// Un couple (token, utilisateur attendu) de la validation groupée ; le préfixe "Bearer " est optionnel
+public record TokenValidationRequest(String token, Long userId) { }
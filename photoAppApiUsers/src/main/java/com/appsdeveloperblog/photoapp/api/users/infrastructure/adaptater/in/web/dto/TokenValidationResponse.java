@@ -0,0 +1,7 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// user n'est renseigné que si le token est valide pour l'utilisateur demandé
+public record TokenValidationResponse(boolean valid, UserResponse user) {
+
+    public static final TokenValidationResponse INVALID = new TokenValidationResponse(false, null);
+}
@@ -0,0 +1,21 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+import java.util.List;
+
+public record UserAlbums(
+        List<AlbumResponse> albums,
+        AlbumsStatus status
+) {
+
+    public static UserAlbums fresh(List<AlbumResponse> albums) {
+        return new UserAlbums(albums, AlbumsStatus.FRESH);
+    }
+
+    public static UserAlbums stale(List<AlbumResponse> albums) {
+        return new UserAlbums(albums, AlbumsStatus.STALE);
+    }
+
+    public static UserAlbums unavailable() {
+        return new UserAlbums(List.of(), AlbumsStatus.UNAVAILABLE);
+    }
+}
@@ -1,6 +1,7 @@
 
 package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,6 @@ public class UserDetailResponse implements Serializable {
     private String firstname;
     private String lastname;
     private List<AlbumResponse> albums ;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private AlbumsStatus albumsStatus;
 }
\ No newline at end of file
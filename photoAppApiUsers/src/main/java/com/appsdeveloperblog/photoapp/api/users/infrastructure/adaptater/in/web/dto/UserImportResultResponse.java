@@ -0,0 +1,9 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// Une ligne du rapport d'import : numéro de ligne du fichier source, statut et éventuelle erreur
+public record UserImportResultResponse(
+        long line,
+        String email,
+        String status,
+        String error
+) { }
@@ -0,0 +1,12 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// Dernière ligne du rapport d'import
+public record UserImportSummaryResponse(
+        long total,
+        long created,
+        long duplicates,
+        long invalid,
+        long failed,
+        long elapsedMillis,
+        double rowsPerSecond
+) { }
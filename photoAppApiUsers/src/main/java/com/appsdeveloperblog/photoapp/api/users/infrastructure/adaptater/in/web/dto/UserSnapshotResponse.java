@@ -0,0 +1,4 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto;
+
+// Projection minimale utilisée par les autres services pour initialiser leur modèle de lecture local
+public record UserSnapshotResponse(long id, String email) { }
@@ -4,6 +4,7 @@ import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.LoginRequest;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.JwtTokenUtil;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.PasswordHashingRejectedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -37,6 +38,11 @@ public class AuthentificationFilter extends UsernamePasswordAuthenticationFilter
             LoginRequest loginRequest = new ObjectMapper().readValue(request.getInputStream(), LoginRequest.class);
 
             return getAuthenticationManager().authenticate(new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password(), new ArrayList<>()));
+        } catch (PasswordHashingRejectedException e) {
+            // Exécuteur BCrypt saturé : on refuse vite (503) au lieu d'empiler les logins
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            return null;
         } catch ( IOException e) {
             throw new RuntimeException(e);
         }
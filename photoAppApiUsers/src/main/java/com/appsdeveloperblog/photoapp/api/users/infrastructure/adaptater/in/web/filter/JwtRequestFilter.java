@@ -2,6 +2,9 @@ package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web
 
 import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.JwtTokenUtil;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentity;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,24 +13,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
 
+    // Claims du JWT vérifié, réutilisables en aval (ex: UserController.validateToken) sans re-parsing
+    public static final String CLAIMS_ATTRIBUTE = "jwtRequestFilter.claims";
+
     private final UserUseCase userUseCase;
     private final JwtTokenUtil jwtTokenUtil;
+    private final TrustedIdentityVerifier trustedIdentityVerifier;
 
-    public JwtRequestFilter(UserUseCase userUseCase, JwtTokenUtil jwtTokenUtil) {
+    public JwtRequestFilter(UserUseCase userUseCase, JwtTokenUtil jwtTokenUtil, TrustedIdentityVerifier trustedIdentityVerifier) {
         this.userUseCase = userUseCase;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.trustedIdentityVerifier = trustedIdentityVerifier;
     }
 
     @Override
@@ -35,34 +46,67 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
 
+        // Mode confiance : l'identité signée par la gateway évite la requête en base et le re-parsing du JWT
+        if (trustedIdentityVerifier.isEnabled() && SecurityContextHolder.getContext().getAuthentication() == null
+                && authenticateFromTrustedIdentity(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        Claims claims = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                claims = jwtTokenUtil.parseClaims(jwtToken); // Signature et expiration vérifiées une seule fois
             } catch (Exception e) {
                 logger.error("Erreur lors de l'extraction du username du token JWT", e);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userUseCase.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            request.setAttribute(CLAIMS_ATTRIBUTE, claims);
 
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (jwtTokenUtil.isStatelessPrincipalEnabled()) {
+                // Principal construit depuis les claims signés : aucune requête en base
+                authenticate(request, buildPrincipal(claims.getSubject(), jwtTokenUtil.getRoles(claims)));
+            } else {
+                UserDetails userDetails = this.userUseCase.loadUserByUsername(claims.getSubject());
+                if (claims.getSubject().equals(userDetails.getUsername())) {
+                    authenticate(request, userDetails);
+                }
             }
         }
         chain.doFilter(request, response);
     }
 
+    private boolean authenticateFromTrustedIdentity(HttpServletRequest request) {
+        Optional<TrustedIdentity> identity = trustedIdentityVerifier.verify(request.getHeader(TrustedIdentityVerifier.IDENTITY_HEADER));
+        if (identity.isEmpty()) {
+            return false;
+        }
+
+        List<String> roles = identity.get().roles() == null ? List.of() : identity.get().roles();
+        authenticate(request, buildPrincipal(identity.get().email(), roles));
+        return true;
+    }
+
+    private static UserDetails buildPrincipal(String email, List<String> roles) {
+        return User.withUsername(email)
+                .password("")
+                .authorities(roles.toArray(String[]::new))
+                .build();
+    }
+
+    private static void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -0,0 +1,21 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.mapper;
+
+import org.mapstruct.Named;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+// Utilise l'encodeur partagé (exécuteur borné) au lieu d'un BCryptPasswordEncoder par appel
+@Component
+public class PasswordEncoderMapper {
+
+    private final PasswordEncoder passwordEncoder;
+
+    public PasswordEncoderMapper(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Named("encryptPassword")
+    public String encryptPassword(String password) {
+        return passwordEncoder.encode(password);
+    }
+}
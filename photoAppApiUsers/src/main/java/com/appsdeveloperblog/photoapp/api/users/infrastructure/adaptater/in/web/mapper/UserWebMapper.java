@@ -6,11 +6,9 @@ import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Named;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = PasswordEncoderMapper.class)
 public interface UserWebMapper {
 
 
@@ -19,9 +17,4 @@ public interface UserWebMapper {
 
     UserResponse fromDomain(User user);
 
-    @Named("encryptPassword")
-    default String encryptPassword(String password) {
-        return new BCryptPasswordEncoder().encode(password);
-    }
-
 }
\ No newline at end of file
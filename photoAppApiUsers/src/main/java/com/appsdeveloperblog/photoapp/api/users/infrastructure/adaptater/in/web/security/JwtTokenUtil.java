@@ -66,7 +66,27 @@ public class JwtTokenUtil {
     }
 
     public Long getUserIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> Long.parseLong((String) claims.get("userId")));
+        return getClaimFromToken(token, this::getUserId);
+    }
+
+    public Claims parseClaims(String token) {
+        return getAllClaimsFromToken(token);
+    }
+
+    public boolean isStatelessPrincipalEnabled() {
+        return applicationConfiguration.getToken().isStatelessPrincipal();
+    }
+
+    public Long getUserId(Claims claims) {
+        Object userId = claims.get("userId");
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        return userId != null ? Long.valueOf(userId.toString()) : null;
+    }
+
+    public List<String> getRoles(Claims claims) {
+        return claims.get("roles") instanceof List<?> roles ? roles.stream().map(String::valueOf).toList() : List.of();
     }
 
 
@@ -0,0 +1,14 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security;
+
+/**
+ * L'exécuteur de hachage est saturé : la requête doit être refusée (503) plutôt que mise en attente.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
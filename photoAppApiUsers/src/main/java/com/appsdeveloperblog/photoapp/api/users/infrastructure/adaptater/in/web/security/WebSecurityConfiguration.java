@@ -4,10 +4,17 @@ import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.filter.AuthentificationFilter;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.filter.JwtRequestFilter;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
-import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
-import org.springframework.boot.actuate.web.exchanges.InMemoryHttpExchangeRepository;
+import com.appsdeveloperblog.photoapp.common.exchanges.HttpExchangesEndpointExtension;
+import com.appsdeveloperblog.photoapp.common.exchanges.SampledHttpExchangeRepository;
+import com.appsdeveloperblog.photoapp.common.exchanges.SampledHttpExchangesFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangesEndpoint;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,7 +22,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -25,33 +32,40 @@ public class WebSecurityConfiguration {
     private final UserUseCase userUseCase;
     private final ApplicationConfiguration applicationConfiguration;
     private final JwtTokenUtil jwtTokenUtil;
+    private final JwtRequestFilter jwtRequestFilter;
 
-    public WebSecurityConfiguration(UserUseCase userUseCase, ApplicationConfiguration applicationConfiguration, JwtTokenUtil jwtTokenUtil) {
+    public WebSecurityConfiguration(UserUseCase userUseCase, ApplicationConfiguration applicationConfiguration, JwtTokenUtil jwtTokenUtil, JwtRequestFilter jwtRequestFilter) {
         this.userUseCase = userUseCase;
         this.applicationConfiguration = applicationConfiguration;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.jwtRequestFilter = jwtRequestFilter;
     }
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
 
         AuthenticationManagerBuilder authenticationManagerBuilder =  http.getSharedObject(AuthenticationManagerBuilder.class);
 
-        authenticationManagerBuilder.userDetailsService(userUseCase).passwordEncoder(new BCryptPasswordEncoder());
+        // userDetailsPasswordManager : rehash au login quand le coût BCrypt configuré change
+        authenticationManagerBuilder.userDetailsService(userUseCase)
+                .passwordEncoder(passwordEncoder)
+                .userDetailsPasswordManager(userUseCase);
         AuthenticationManager authenticationManager = authenticationManagerBuilder.build();
 
         AuthentificationFilter authentificationFilter = new AuthentificationFilter(authenticationManager, userUseCase, jwtTokenUtil);
         authentificationFilter.setFilterProcessesUrl(applicationConfiguration.getLoginUrlPath());
 
-        // Créer le filtre JWT pour les autres requêtes
-        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(userUseCase, jwtTokenUtil);
-
-
         http.csrf(AbstractHttpConfigurer::disable);
         http.authorizeHttpRequests(authz -> authz
+                // La requête d'origine est déjà authentifiée : on laisse passer le dispatch des réponses asynchrones
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers(applicationConfiguration.getLoginUrlPath()).permitAll()
+                // Validation groupée réservée aux services : l'identité de service signée est vérifiée par le contrôleur
+                .requestMatchers(HttpMethod.POST, "/api/users/validate").permitAll()
+                // Snapshot réservé aux services : l'identité de service signée est vérifiée par le contrôleur
+                .requestMatchers(HttpMethod.GET, "/api/users/snapshot").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .anyRequest().authenticated())
                 // Ajouter le filtre d'authentification (pour login)
@@ -65,8 +79,36 @@ public class WebSecurityConfiguration {
         return http.build();
     }
 
+    // Encodeur partagé : BCrypt sur un exécuteur dédié, borné et instrumenté
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        ApplicationConfiguration.Password password = applicationConfiguration.getPassword();
+        return new BoundedPasswordEncoder(password.getBcryptStrength(), password.getHashingThreads(),
+                password.getQueueCapacity(), password.getTimeoutMillis(), meterRegistry);
+    }
+
+    // Le filtre JWT ne s'exécute que dans la chaîne de sécurité, pas en plus comme filtre servlet
+    @Bean
+    public FilterRegistrationBean<JwtRequestFilter> jwtRequestFilterRegistration(JwtRequestFilter jwtRequestFilter) {
+        FilterRegistrationBean<JwtRequestFilter> registration = new FilterRegistrationBean<>(jwtRequestFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public SampledHttpExchangeRepository httpExchangeRepository(MeterRegistry meterRegistry){
+        return new SampledHttpExchangeRepository(applicationConfiguration::getHttpExchanges, meterRegistry);
+    }
+
+    // Remplace le filtre de Spring Boot (ConditionalOnMissingBean) : échantillonnage avant toute copie
+    @Bean
+    public SampledHttpExchangesFilter httpExchangesFilter(SampledHttpExchangeRepository httpExchangeRepository) {
+        return new SampledHttpExchangesFilter(httpExchangeRepository, applicationConfiguration::getHttpExchanges);
+    }
+
     @Bean
-    public HttpExchangeRepository httpExchangeRepository(){
-        return new InMemoryHttpExchangeRepository();
+    @ConditionalOnAvailableEndpoint(endpoint = HttpExchangesEndpoint.class)
+    public HttpExchangesEndpointExtension httpExchangesEndpointExtension(SampledHttpExchangeRepository httpExchangeRepository) {
+        return new HttpExchangesEndpointExtension(httpExchangeRepository);
     }
 }
@@ -0,0 +1,91 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dernière liste d'albums connue par utilisateur, alimentée par chaque appel album-ws réussi.
+ * Bornée en taille et en âge (max-age) : au-delà, une liste n'est plus servie, même en secours.
+ */
+@Component
+public class AlbumFallbackCache {
+
+    private final ApplicationConfiguration applicationConfiguration;
+    private final Cache<Long, CachedAlbums> albumsByUserId;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter staleFallbacks;
+    private final Counter unavailableFallbacks;
+
+    public AlbumFallbackCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.applicationConfiguration = applicationConfiguration;
+
+        ApplicationConfiguration.AlbumCache albumCache = applicationConfiguration.getAlbumCache();
+        this.albumsByUserId = Caffeine.newBuilder()
+                .maximumSize(albumCache.isEnabled() ? albumCache.getMaximumSize() : 0)
+                .expireAfterWrite(albumCache.getMaxAge())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, albumsByUserId, "users.albums.last-known-good");
+        this.staleFallbacks = Counter.builder("users.albums.fallback").tag("result", "stale")
+                .description("Fallbacks servis depuis la dernière liste connue").register(meterRegistry);
+        this.unavailableFallbacks = Counter.builder("users.albums.fallback").tag("result", "unavailable")
+                .description("Fallbacks sans copie locale").register(meterRegistry);
+    }
+
+    public void put(Long userId, List<AlbumResponse> albums) {
+        albumsByUserId.put(userId, new CachedAlbums(List.copyOf(albums), Instant.now()));
+    }
+
+    public Optional<CachedAlbums> get(Long userId) {
+        return Optional.ofNullable(albumsByUserId.getIfPresent(userId));
+    }
+
+    // Réponse de secours des clients album-ws : dernière liste connue marquée STALE, sinon UNAVAILABLE
+    public UserAlbums fallback(Long userId) {
+        return get(userId)
+                .map(cached -> {
+                    staleFallbacks.increment();
+                    return UserAlbums.stale(cached.albums());
+                })
+                .orElseGet(() -> {
+                    unavailableFallbacks.increment();
+                    return UserAlbums.unavailable();
+                });
+    }
+
+    public boolean isSoftTtlEnabled() {
+        Duration softTtl = applicationConfiguration.getAlbumCache().getSoftTtl();
+        return softTtl != null && softTtl.isPositive();
+    }
+
+    public boolean isFresh(CachedAlbums cached) {
+        Duration softTtl = applicationConfiguration.getAlbumCache().getSoftTtl();
+        return softTtl != null && cached.fetchedAt().plus(softTtl).isAfter(Instant.now());
+    }
+
+    // Un seul rafraîchissement en arrière-plan par utilisateur
+    public boolean tryStartRefresh(Long userId) {
+        return refreshing.add(userId);
+    }
+
+    public void endRefresh(Long userId) {
+        refreshing.remove(userId);
+    }
+
+    public record CachedAlbums(List<AlbumResponse> albums, Instant fetchedAt) {
+    }
+}
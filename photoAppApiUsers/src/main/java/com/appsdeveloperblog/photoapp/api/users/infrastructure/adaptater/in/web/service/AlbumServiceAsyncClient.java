@@ -0,0 +1,69 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.AsyncConfiguration;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience.RequestHedger;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Version non bloquante de {@link AlbumServiceClient}.
+ * Ordre des aspects (application.yml) : TimeLimiter > CircuitBreaker > Retry,
+ * le timeout borne donc l'appel complet, retries et backoff compris.
+ * Chaque réponse est conservée dans {@link AlbumFallbackCache} ; le fallback sert cette copie marquée STALE.
+ * application.album-hedging.enabled : chaque tentative est couverte par {@link RequestHedger}, une seconde
+ * requête vers une autre instance si la première tarde ; le timeout et les retries s'appliquent au couple.
+ */
+@Component
+@Slf4j
+public class AlbumServiceAsyncClient {
+
+    private final AlbumServiceClient albumServiceClient;
+    private final AlbumFallbackCache albumFallbackCache;
+    private final Executor ioTaskExecutor;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final RequestHedger albumHedger;
+
+    public AlbumServiceAsyncClient(AlbumServiceClient albumServiceClient, AlbumFallbackCache albumFallbackCache,
+                                   @Qualifier(AsyncConfiguration.IO_TASK_EXECUTOR) Executor ioTaskExecutor,
+                                   ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.albumServiceClient = albumServiceClient;
+        this.albumFallbackCache = albumFallbackCache;
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.applicationConfiguration = applicationConfiguration;
+        this.albumHedger = new RequestHedger("album-ws.hedge", "users.albums.hedge",
+                applicationConfiguration.getAlbumHedging(), ioTaskExecutor, meterRegistry);
+    }
+
+    @TimeLimiter(name = "album-ws", fallbackMethod = "getAlbumsFallback")
+    @CircuitBreaker(name = "album-ws")
+    @Retry(name = "album-ws")
+    public CompletableFuture<UserAlbums> getAlbums(String token, String identity, Long userId) {
+        if (applicationConfiguration.getAlbumHedging().isEnabled()) {
+            return albumHedger.submit(() -> fetchAlbums(token, identity, userId));
+        }
+        return CompletableFuture.supplyAsync(() -> fetchAlbums(token, identity, userId), ioTaskExecutor);
+    }
+
+    private UserAlbums fetchAlbums(String token, String identity, Long userId) {
+        List<AlbumResponse> albums = albumServiceClient.fetchAlbums(token, identity, userId);
+        albumFallbackCache.put(userId, albums);
+        return UserAlbums.fresh(albums);
+    }
+
+    private CompletableFuture<UserAlbums> getAlbumsFallback(String token, String identity, Long userId, Throwable ex) {
+        log.debug("Album service unavailable for user id {}: {}", userId, ex.toString());
+        return CompletableFuture.completedFuture(albumFallbackCache.fallback(userId));
+    }
+}
@@ -0,0 +1,69 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Version bloquante et résiliente de {@link AlbumServiceClient}. Comme {@link AlbumServiceAsyncClient},
+ * chaque réponse alimente {@link AlbumFallbackCache} et le fallback sert la dernière liste connue (STALE)
+ * ou UNAVAILABLE, jamais de faux album.
+ */
+@Component
+@Slf4j
+public class AlbumServiceSyncClient {
+
+    private final AlbumServiceClient albumServiceClient;
+    private final AlbumFallbackCache albumFallbackCache;
+
+    public AlbumServiceSyncClient(AlbumServiceClient albumServiceClient, AlbumFallbackCache albumFallbackCache) {
+        this.albumServiceClient = albumServiceClient;
+        this.albumFallbackCache = albumFallbackCache;
+    }
+
+    @CircuitBreaker(name = "album-ws", fallbackMethod = "getAlbumsFallback")
+    @Retry(name = "album-ws")
+    public UserAlbums getAlbums(String token, String identity, Long userId) {
+        List<AlbumResponse> albums = albumServiceClient.fetchAlbums(token, identity, userId);
+        albumFallbackCache.put(userId, albums);
+        return UserAlbums.fresh(albums);
+    }
+
+    /**
+     * @return les albums de chaque utilisateur demandé, liste vide comprise
+     */
+    @CircuitBreaker(name = "album-ws", fallbackMethod = "getAlbumsByUserIdsFallback")
+    @Retry(name = "album-ws")
+    public Map<Long, UserAlbums> getAlbumsByUserIds(String token, String serviceIdentity, Collection<Long> userIds) {
+        Map<Long, List<AlbumResponse>> albumsByUserId = albumServiceClient.fetchAlbumsByUserIds(token, serviceIdentity, userIds).stream()
+                .collect(Collectors.groupingBy(AlbumResponse::userId));
+        Map<Long, UserAlbums> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            List<AlbumResponse> albums = albumsByUserId.getOrDefault(userId, List.of());
+            albumFallbackCache.put(userId, albums);
+            result.put(userId, UserAlbums.fresh(albums));
+        }
+        return result;
+    }
+
+    private UserAlbums getAlbumsFallback(String token, String identity, Long userId, Throwable ex) {
+        log.debug("Album service unavailable for user id {}: {}", userId, ex.toString());
+        return albumFallbackCache.fallback(userId);
+    }
+
+    private Map<Long, UserAlbums> getAlbumsByUserIdsFallback(String token, String serviceIdentity, Collection<Long> userIds, Throwable ex) {
+        log.debug("Album service unavailable for {} user ids: {}", userIds.size(), ex.toString());
+        Map<Long, UserAlbums> result = new LinkedHashMap<>();
+        userIds.forEach(userId -> result.put(userId, albumFallbackCache.fallback(userId)));
+        return result;
+    }
+}
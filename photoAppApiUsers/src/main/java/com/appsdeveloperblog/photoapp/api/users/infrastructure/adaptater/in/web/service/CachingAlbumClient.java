@@ -0,0 +1,64 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stale-while-revalidate devant {@link AlbumServiceAsyncClient}, actif quand application.album-cache.soft-ttl est positif.
+ * Une copie locale est servie tout de suite : FRESH avant le soft TTL, STALE après, avec un rafraîchissement
+ * en arrière-plan. Sans copie, ou sans soft TTL, l'appel part vers album-ws comme avant.
+ */
+@Component
+@Slf4j
+public class CachingAlbumClient {
+
+    private final AlbumServiceAsyncClient albumServiceAsyncClient;
+    private final AlbumFallbackCache albumFallbackCache;
+    private final Counter backgroundRefreshes;
+
+    public CachingAlbumClient(AlbumServiceAsyncClient albumServiceAsyncClient, AlbumFallbackCache albumFallbackCache,
+                              MeterRegistry meterRegistry) {
+        this.albumServiceAsyncClient = albumServiceAsyncClient;
+        this.albumFallbackCache = albumFallbackCache;
+        this.backgroundRefreshes = Counter.builder("users.albums.background-refresh")
+                .description("Rafraîchissements déclenchés après le soft TTL").register(meterRegistry);
+    }
+
+    public CompletableFuture<UserAlbums> getAlbums(String token, String identity, Long userId) {
+        if (!albumFallbackCache.isSoftTtlEnabled()) {
+            return albumServiceAsyncClient.getAlbums(token, identity, userId);
+        }
+
+        Optional<AlbumFallbackCache.CachedAlbums> cached = albumFallbackCache.get(userId);
+        if (cached.isEmpty()) {
+            return albumServiceAsyncClient.getAlbums(token, identity, userId);
+        }
+        if (albumFallbackCache.isFresh(cached.get())) {
+            return CompletableFuture.completedFuture(UserAlbums.fresh(cached.get().albums()));
+        }
+
+        refreshInBackground(token, identity, userId);
+        return CompletableFuture.completedFuture(UserAlbums.stale(cached.get().albums()));
+    }
+
+    // Le client asynchrone alimente le cache en cas de succès ; un échec laisse la copie en place
+    private void refreshInBackground(String token, String identity, Long userId) {
+        if (!albumFallbackCache.tryStartRefresh(userId)) {
+            return;
+        }
+        backgroundRefreshes.increment();
+        try {
+            albumServiceAsyncClient.getAlbums(token, identity, userId)
+                    .whenComplete((albums, ex) -> albumFallbackCache.endRefresh(userId));
+        } catch (RuntimeException e) {
+            albumFallbackCache.endRefresh(userId);
+            log.debug("Background album refresh failed for user id {}: {}", userId, e.toString());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserImportResultResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserImportSummaryResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserRequest;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.BoundedPasswordEncoder;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.PasswordHashingRejectedException;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse : lecture ligne à ligne (NDJSON ou CSV), hachage parallèle des mots de passe
+ * puis insertion par lots JDBC. Chaque ligne produit un résultat, envoyé au fil de l'eau.
+ */
+@Component
+@Slf4j
+public class UserImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final List<String> CSV_COLUMNS = List.of("firstname", "lastname", "email", "password");
+
+    private final UserUseCase userUseCase;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary throughput;
+    private final ObjectReader ndjsonReader;
+
+    public UserImportService(UserUseCase userUseCase, BoundedPasswordEncoder passwordEncoder, Validator validator,
+                             ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry,
+                             ObjectMapper objectMapper) {
+        this.userUseCase = userUseCase;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.applicationConfiguration = applicationConfiguration;
+        this.meterRegistry = meterRegistry;
+        this.throughput = DistributionSummary.builder("users.import.throughput")
+                .baseUnit("rows/s")
+                .description("Débit des imports en masse")
+                .register(meterRegistry);
+        this.ndjsonReader = objectMapper.readerFor(UserRequest.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException si l'en-tête CSV ne contient pas les colonnes attendues
+     */
+    public UserImportSummaryResponse importUsers(InputStream input, Format format, Consumer<UserImportResultResponse> sink) throws IOException {
+        long start = System.nanoTime();
+        int batchSize = Math.max(1, applicationConfiguration.getBulkImport().getBatchSize());
+        ImportRun run = new ImportRun(sink);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        LineParser parser = ndjsonReader::readValue;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return summary(run, start);
+            }
+            lineNumber++;
+            parser = csvParser(header);
+        }
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            UserRequest request;
+            try {
+                request = parser.parse(line);
+            } catch (Exception e) {
+                run.report(lineNumber, null, UserImportStatus.INVALID, "Unreadable line");
+                continue;
+            }
+            Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                run.report(lineNumber, request.email(), UserImportStatus.INVALID, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            batch.add(new Row(lineNumber, request));
+            if (batch.size() == batchSize) {
+                importBatch(batch, run);
+                batch.clear();
+            }
+        }
+        importBatch(batch, run);
+        return summary(run, start);
+    }
+
+    // La réponse est déjà engagée : un échec du lot (hachage refusé, base indisponible) devient
+    // une ligne FAILED par utilisateur du lot plutôt qu'une exception qui tronquerait le flux
+    private void importBatch(List<Row> batch, ImportRun run) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> encryptedPasswords;
+        try {
+            encryptedPasswords = passwordEncoder.encodeAll(batch.stream().map(row -> row.request().password()).toList());
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Import batch of {} rows not hashed: {}", batch.size(), e.getMessage());
+            batch.forEach(row -> run.report(row.line(), row.request().email(), UserImportStatus.FAILED, "Password hashing unavailable, retry later"));
+            return;
+        }
+
+        List<User> users = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            UserRequest request = batch.get(i).request();
+            users.add(new User(null, request.firstname(), request.lastname(), request.email(), encryptedPasswords.get(i)));
+        }
+
+        List<UserImportStatus> statuses;
+        try {
+            statuses = userUseCase.importUsers(users);
+        } catch (RuntimeException e) {
+            log.warn("Import batch of {} rows not stored", batch.size(), e);
+            batch.forEach(row -> run.report(row.line(), row.request().email(), UserImportStatus.FAILED, "Unable to store user, retry later"));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            UserImportStatus status = statuses.get(i);
+            run.report(batch.get(i).line(), users.get(i).email(), status,
+                    status == UserImportStatus.DUPLICATE ? "Email already exists" : null);
+        }
+    }
+
+    private UserImportSummaryResponse summary(ImportRun run, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        long total = run.totals.values().stream().mapToLong(Long::longValue).sum();
+        double rowsPerSecond = elapsedNanos > 0 ? total * 1_000_000_000d / elapsedNanos : 0;
+        if (total > 0) {
+            throughput.record(rowsPerSecond);
+        }
+        log.info("Imported {} rows in {} ms ({} rows/s)", total, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+
+        return new UserImportSummaryResponse(total,
+                run.totals.get(UserImportStatus.CREATED),
+                run.totals.get(UserImportStatus.DUPLICATE),
+                run.totals.get(UserImportStatus.INVALID),
+                run.totals.get(UserImportStatus.FAILED),
+                elapsedNanos / 1_000_000,
+                rowsPerSecond);
+    }
+
+    // CSV RFC 4180 sur une ligne : champs entre guillemets (virgules et "" échappés permis) ;
+    // un champ entre guillemets qui s'étend sur plusieurs lignes est refusé. L'en-tête donne l'ordre des colonnes
+    private static LineParser csvParser(String header) {
+        List<String> columns = splitCsvLine(header).stream().map(String::trim).map(String::toLowerCase).toList();
+        if (!columns.containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must contain the columns " + CSV_COLUMNS);
+        }
+        int firstname = columns.indexOf("firstname");
+        int lastname = columns.indexOf("lastname");
+        int email = columns.indexOf("email");
+        int password = columns.indexOf("password");
+
+        return line -> {
+            List<String> values = splitCsvLine(line);
+            if (values.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " columns");
+            }
+            return new UserRequest(null, values.get(firstname).trim(), values.get(lastname).trim(),
+                    values.get(password), values.get(email).trim());
+        };
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                    if (i < line.length() && line.charAt(i) != ',') {
+                        throw new IllegalArgumentException("Unexpected character after closing quote");
+                    }
+                }
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        UserRequest parse(String line) throws IOException;
+    }
+
+    private record Row(long line, UserRequest request) {
+    }
+
+    private class ImportRun {
+        private final Consumer<UserImportResultResponse> sink;
+        private final Map<UserImportStatus, Long> totals = new EnumMap<>(UserImportStatus.class);
+
+        ImportRun(Consumer<UserImportResultResponse> sink) {
+            this.sink = sink;
+            for (UserImportStatus status : UserImportStatus.values()) {
+                totals.put(status, 0L);
+            }
+        }
+
+        void report(long line, String email, UserImportStatus status, String error) {
+            totals.merge(status, 1L, Long::sum);
+            meterRegistry.counter("users.import.rows", "status", status.name()).increment();
+            sink.accept(new UserImportResultResponse(line, email, status.name(), error));
+        }
+    }
+}
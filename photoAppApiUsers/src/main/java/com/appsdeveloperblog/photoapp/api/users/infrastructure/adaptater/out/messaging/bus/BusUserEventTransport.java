@@ -0,0 +1,76 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.bus;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventTransport;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Diffuse les événements sur le binding Spring Cloud Bus (AMQP) déjà utilisé pour busrefresh.
+ * L'envoi attend l'accusé du broker (publisher confirms, use-confirm-header) : un nack, un message non routé
+ * ou un délai dépassé lèvent une exception et le lot reste dans l'outbox.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox", name = "transport", havingValue = "bus", matchIfMissing = true)
+public class BusUserEventTransport implements UserEventTransport {
+
+    private final StreamBridge streamBridge;
+    private final BusProperties busProperties;
+    private final Destination.Factory destinationFactory;
+    private final ApplicationConfiguration applicationConfiguration;
+
+    public BusUserEventTransport(StreamBridge streamBridge, BusProperties busProperties, Destination.Factory destinationFactory,
+                                 ApplicationConfiguration applicationConfiguration) {
+        this.streamBridge = streamBridge;
+        this.busProperties = busProperties;
+        this.destinationFactory = destinationFactory;
+        this.applicationConfiguration = applicationConfiguration;
+    }
+
+    @Override
+    public void send(List<UserEvent> events) {
+        UserChangedRemoteApplicationEvent event = new UserChangedRemoteApplicationEvent(
+                this, busProperties.getId(), destinationFactory.getDestination(null), List.copyOf(events));
+        CorrelationData correlation = new CorrelationData();
+        boolean accepted = streamBridge.send(BusConstants.OUTPUT, MessageBuilder.withPayload(event)
+                .setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlation)
+                .build());
+        if (!accepted) {
+            throw new IllegalStateException("User events rejected by the bus output binding");
+        }
+        awaitConfirm(correlation);
+    }
+
+    private void awaitConfirm(CorrelationData correlation) {
+        long timeout = applicationConfiguration.getOutbox().getConfirmTimeout().toMillis();
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the broker confirm", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("No broker confirm for user events within " + timeout + " ms", e);
+        }
+        if (!confirm.isAck()) {
+            throw new IllegalStateException("User events nacked by the broker: " + confirm.getReason());
+        }
+        // Retour (mandatory) reçu avant l'accusé : aucun consommateur lié à l'exchange
+        if (correlation.getReturned() != null) {
+            throw new IllegalStateException("User events returned by the broker: " + correlation.getReturned().getReplyText());
+        }
+    }
+}
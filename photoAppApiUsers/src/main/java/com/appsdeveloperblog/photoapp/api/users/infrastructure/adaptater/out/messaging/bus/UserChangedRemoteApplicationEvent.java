@@ -0,0 +1,25 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.bus;
+
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import lombok.Getter;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.List;
+
+// Un message Bus par lot relayé ; le nom simple de la classe sert d'identifiant de type côté consommateurs
+@Getter
+public class UserChangedRemoteApplicationEvent extends RemoteApplicationEvent {
+
+    private List<UserEvent> events;
+
+    @SuppressWarnings("unused")
+    public UserChangedRemoteApplicationEvent() {
+        // Pour la désérialisation Jackson
+    }
+
+    public UserChangedRemoteApplicationEvent(Object source, String originService, Destination destination, List<UserEvent> events) {
+        super(source, originService, destination);
+        this.events = events;
+    }
+}
@@ -1,4 +0,0 @@
-package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.kafka;
-
-public class UserEventPublisher {
-}
@@ -0,0 +1,30 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.memory;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventTransport;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Transport local pour les tests et le développement sans RabbitMQ : application.outbox.transport=memory
+@Component
+@ConditionalOnProperty(prefix = "application.outbox", name = "transport", havingValue = "memory")
+public class InMemoryUserEventTransport implements UserEventTransport {
+
+    private final List<UserEvent> sent = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<UserEvent> events) {
+        sent.addAll(events);
+    }
+
+    public List<UserEvent> getSentEvents() {
+        return List.copyOf(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
@@ -0,0 +1,6 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JpaUserOutboxDeadLetterRepository extends JpaRepository<UserOutboxDeadLetterEntity, Long> {
+}
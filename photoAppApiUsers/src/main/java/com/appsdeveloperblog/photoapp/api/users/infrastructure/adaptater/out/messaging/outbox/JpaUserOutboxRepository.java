@@ -0,0 +1,27 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface JpaUserOutboxRepository extends JpaRepository<UserOutboxEntity, Long> {
+
+    // SKIP LOCKED (timeout -2) : plusieurs instances peuvent réclamer des lignes sans se bloquer ;
+    // le bail (locked_until) prend le relais une fois le verrou rendu, pendant l'envoi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<UserOutboxEntity> findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(Instant now, Limit limit);
+
+    @Modifying
+    @Query("update UserOutboxEntity e set e.lockedUntil = null where e.id in :ids")
+    void releaseLease(@Param("ids") List<Long> ids);
+}
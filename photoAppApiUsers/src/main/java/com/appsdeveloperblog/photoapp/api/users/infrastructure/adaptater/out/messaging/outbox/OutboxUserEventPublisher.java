@@ -0,0 +1,54 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventPublisher;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Outbox transactionnel : les événements sont insérés dans user_outbox, dans la transaction de l'écriture.
+ * Un rollback les annule, un commit les garantit ; l'envoi est fait plus tard par {@link UserOutboxRelay}.
+ */
+@Component
+public class OutboxUserEventPublisher implements UserEventPublisher {
+
+    private static final String INSERT_OUTBOX_SQL =
+            "insert into user_outbox (event_type, user_id, payload, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxUserEventPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.type().name());
+            ps.setLong(2, event.userId());
+            ps.setString(3, toJson(event));
+            ps.setTimestamp(4, Timestamp.from(event.occurredAt()));
+        });
+    }
+
+    private String toJson(UserEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize user event", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Ligne d'outbox illisible, mise de côté pour ne pas bloquer le relais ; à rejouer ou purger à la main
+@Entity
+@Table(name = "user_outbox_dead_letter")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOutboxDeadLetterEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false)
+    private long outboxId;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    @Column(nullable = false)
+    private long userId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
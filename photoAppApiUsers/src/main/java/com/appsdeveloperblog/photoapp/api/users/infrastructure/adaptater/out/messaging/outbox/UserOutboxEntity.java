@@ -0,0 +1,35 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "user_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    @Column(nullable = false)
+    private long userId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Bail posé par le relais pendant l'envoi, hors transaction : la ligne reste invisible aux autres instances
+    private Instant lockedUntil;
+}
@@ -0,0 +1,146 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventTransport;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vide l'outbox en tâche de fond, par lots, dans l'ordre d'insertion.
+ * Un lot est réclamé dans une transaction courte (verrou SKIP LOCKED, puis bail locked_until), envoyé hors
+ * transaction, et ses lignes ne sont supprimées qu'après l'accusé du transport : livraison au moins une fois,
+ * y compris après un crash (le bail expire et le lot repart). Une ligne illisible part dans
+ * user_outbox_dead_letter au lieu de bloquer les suivantes.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "application.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+
+    private final JpaUserOutboxRepository outboxRepository;
+    private final JpaUserOutboxDeadLetterRepository deadLetterRepository;
+    private final UserEventTransport transport;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Counter deadLettered;
+
+    public UserOutboxRelay(JpaUserOutboxRepository outboxRepository, JpaUserOutboxDeadLetterRepository deadLetterRepository,
+                           UserEventTransport transport, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                           ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.transport = transport;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.applicationConfiguration = applicationConfiguration;
+        this.relayed = Counter.builder("users.outbox.relayed").description("Événements envoyés depuis l'outbox").register(meterRegistry);
+        this.failures = Counter.builder("users.outbox.failures").description("Lots dont l'envoi a échoué").register(meterRegistry);
+        this.deadLettered = Counter.builder("users.outbox.dead-lettered")
+                .description("Lignes illisibles déplacées dans user_outbox_dead_letter")
+                .register(meterRegistry);
+        Gauge.builder("users.outbox.pending", outboxRepository, JpaUserOutboxRepository::count)
+                .description("Événements en attente dans l'outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval:500ms}")
+    public void relay() {
+        int batchSize = applicationConfiguration.getOutbox().getBatchSize();
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch(batchSize);
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("User outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return nombre de lignes réclamées, illisibles comprises : un lot plein relance la boucle
+     */
+    int relayBatch(int batchSize) {
+        Claim claim = transactionTemplate.execute(status -> claim(batchSize));
+        if (claim == null || claim.ids().isEmpty()) {
+            return claim == null ? 0 : claim.rows();
+        }
+        try {
+            // Hors transaction : ni verrou ni connexion JDBC tenus pendant l'attente de l'accusé
+            transport.send(claim.events());
+        } catch (RuntimeException e) {
+            // Lot rendu tout de suite plutôt qu'à l'expiration du bail
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseLease(claim.ids()));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(claim.ids()));
+        relayed.increment(claim.ids().size());
+        return claim.rows();
+    }
+
+    private Claim claim(int batchSize) {
+        Instant now = Instant.now();
+        List<UserOutboxEntity> rows = outboxRepository.findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(now, Limit.of(batchSize));
+        Instant lockedUntil = now.plus(applicationConfiguration.getOutbox().getLease());
+        List<UserEvent> events = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (UserOutboxEntity row : rows) {
+            UserEvent event;
+            try {
+                event = fromJson(row.getPayload());
+            } catch (IllegalStateException e) {
+                deadLetter(row, e, now);
+                continue;
+            }
+            // Mise à jour au commit (entité managée)
+            row.setLockedUntil(lockedUntil);
+            events.add(event);
+            ids.add(row.getId());
+        }
+        return new Claim(events, ids, rows.size());
+    }
+
+    private void deadLetter(UserOutboxEntity row, IllegalStateException e, Instant now) {
+        log.error("Unreadable user outbox row {} moved to user_outbox_dead_letter", row.getId(), e);
+        String error = String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        deadLetterRepository.save(UserOutboxDeadLetterEntity.builder()
+                .outboxId(row.getId())
+                .eventType(row.getEventType())
+                .userId(row.getUserId())
+                .payload(row.getPayload())
+                .createdAt(row.getCreatedAt())
+                .failedAt(now)
+                .error(error.length() > 1000 ? error.substring(0, 1000) : error)
+                .build());
+        outboxRepository.delete(row);
+        deadLettered.increment();
+    }
+
+    private UserEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, UserEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable user outbox payload", e);
+        }
+    }
+
+    private record Claim(List<UserEvent> events, List<Long> ids, int rows) {
+    }
+}
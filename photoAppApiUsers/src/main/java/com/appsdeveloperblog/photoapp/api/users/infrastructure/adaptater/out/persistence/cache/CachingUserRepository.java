@@ -0,0 +1,164 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.cache;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserRepository;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.repository.JpaUserRepositoryAdapter;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Cache local devant {@link JpaUserRepositoryAdapter} pour les lectures unitaires (login, validation du token,
+ * détail utilisateur). Deux index : id -> User et email -> id, l'email ne pointant que vers l'index principal.
+ * Les écritures de cette instance invalident les entrées, avant l'écriture et de nouveau après le commit ;
+ * celles des autres instances sont bornées par le TTL.
+ * Une lecture ne met en cache la ligne chargée que si aucune invalidation n'a eu lieu pendant le chargement :
+ * sinon une lecture en course avec une écriture pourrait réinsérer l'ancienne ligne jusqu'au TTL.
+ */
+@Repository
+@Primary
+public class CachingUserRepository implements UserRepository {
+
+    private final JpaUserRepositoryAdapter delegate;
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> idsByEmail;
+    // Incrémentée à chaque invalidation, sous le verrou de la clé invalidée
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingUserRepository(JpaUserRepositoryAdapter delegate, ApplicationConfiguration applicationConfiguration,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        ApplicationConfiguration.UserCache userCache = applicationConfiguration.getUserCache();
+        long maximumSize = userCache.isEnabled() ? userCache.getMaximumSize() : 0;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(userCache.getTimeToLive())
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(userCache.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.by-email");
+    }
+
+    @Override
+    public Optional<User> findById(long id) {
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = generation.get();
+        Optional<User> user = delegate.findById(id);
+        user.ifPresent(loaded -> putIfUnchanged(loaded, stamp));
+        return user;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            // L'index email peut survivre à l'entrée principale : on revérifie l'email
+            if (cached != null && cached.email().equals(email)) {
+                return Optional.of(cached);
+            }
+        }
+        long stamp = generation.get();
+        Optional<User> user = delegate.findByEmail(email);
+        user.ifPresentOrElse(loaded -> putIfUnchanged(loaded, stamp), () -> idsByEmail.invalidate(email));
+        return user;
+    }
+
+    @Override
+    public User save(User user) {
+        if (user.id() != null) {
+            evict(user.id());
+        }
+        User saved = delegate.save(user);
+        evictNowAndAfterCommit(saved.id());
+        return saved;
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        evict(id);
+        delegate.deleteUser(id);
+        evictNowAndAfterCommit(id);
+    }
+
+    @Override
+    public List<UserImportStatus> saveAllNew(List<User> users) {
+        return delegate.saveAllNew(users);
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findAllAfter(long afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    // Comparaison et insertion sous le verrou de la clé : une invalidation concurrente passe avant ou après, jamais entre
+    private void putIfUnchanged(User user, long stamp) {
+        User cached = usersById.asMap().compute(user.id(), (id, current) -> generation.get() == stamp ? user : current);
+        if (cached == user) {
+            idsByEmail.put(user.email(), user.id());
+        }
+    }
+
+    private void evict(Long id) {
+        AtomicReference<User> previous = new AtomicReference<>();
+        usersById.asMap().compute(id, (key, current) -> {
+            generation.incrementAndGet();
+            previous.set(current);
+            return null;
+        });
+        if (previous.get() != null) {
+            idsByEmail.invalidate(previous.get().email());
+        }
+    }
+
+    // Dans une transaction, une lecture entre l'écriture et le commit verrait encore l'ancienne ligne
+    private void evictNowAndAfterCommit(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.repository;
 
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface JpaUserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
+
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    // Curseur JDBC : les lignes sont lues par paquets de 500 au lieu de charger toute la table
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from UserEntity u order by u.id")
+    Stream<UserEntity> streamAllByOrderById();
 }
@@ -1,32 +1,69 @@
 package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.repository;
 
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventPublisher;
 import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserRepository;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
 import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.entity.UserEntity;
 import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.mapper.UserEntityMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class JpaUserRepositoryAdapter implements UserRepository {
 
+    // L'id IDENTITY empêche Hibernate de regrouper les INSERT : l'import passe directement par JDBC
+    private static final String INSERT_USER_SQL =
+            "insert into users (firstname, lastname, email, encrypted_password) values (?, ?, ?, ?)";
+
     private final JpaUserRepository jpaRepository;
     private final UserEntityMapper userEntityMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEventPublisher userEventPublisher;
 
 
-    public JpaUserRepositoryAdapter(JpaUserRepository jpaRepository, UserEntityMapper userEntityMapper) {
+    public JpaUserRepositoryAdapter(JpaUserRepository jpaRepository, UserEntityMapper userEntityMapper, EntityManager entityManager,
+                                    JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, UserEventPublisher userEventPublisher) {
         this.jpaRepository = jpaRepository;
         this.userEntityMapper = userEntityMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userEventPublisher = userEventPublisher;
     }
 
+    // L'événement est écrit dans l'outbox dans la même transaction que l'utilisateur
     @Override
     public User save(User user) {
-        UserEntity entity = userEntityMapper.toEntity(user);
-        entity = jpaRepository.save(entity);
-        return userEntityMapper.toDto(entity);
+        return transactionTemplate.execute(status -> {
+            UserEntity entity = jpaRepository.save(userEntityMapper.toEntity(user));
+            User saved = userEntityMapper.toDto(entity);
+            userEventPublisher.publish(List.of(user.id() == null ? UserEvent.created(saved) : UserEvent.updated(saved)));
+            return saved;
+        });
     }
 
     @Override
@@ -39,6 +76,13 @@ public class JpaUserRepositoryAdapter implements UserRepository {
         return jpaRepository.findByEmail(email).map(userEntityMapper::toDto);
     }
 
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return jpaRepository.findAllById(ids).stream()
+                .map(userEntityMapper::toDto)
+                .toList();
+    }
+
     @Override
     public List<User> findAll() {
         return jpaRepository.findAll().stream()
@@ -46,8 +90,100 @@ public class JpaUserRepositoryAdapter implements UserRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<User> findAllAfter(long afterId, int limit) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(userEntityMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        // Chaque entité est détachée après conversion : le contexte de persistance ne grossit pas
+        return jpaRepository.streamAllByOrderById()
+                .map(entity -> {
+                    User user = userEntityMapper.toDto(entity);
+                    entityManager.detach(entity);
+                    return user;
+                });
+    }
+
+    @Override
+    public List<UserImportStatus> saveAllNew(List<User> users) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(insertUserStatement(), new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindUser(ps, users.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                }, keyHolder);
+
+                List<UserEvent> events = new ArrayList<>(users.size());
+                List<Map<String, Object>> keys = keyHolder.getKeyList();
+                for (int i = 0; i < users.size(); i++) {
+                    events.add(UserEvent.created(withId(users.get(i), keys.get(i))));
+                }
+                userEventPublisher.publish(events);
+            });
+            return Collections.nCopies(users.size(), UserImportStatus.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            // Le lot est annulé en entier : on le rejoue ligne par ligne pour isoler les doublons
+            List<UserImportStatus> statuses = new ArrayList<>(users.size());
+            for (User user : users) {
+                statuses.add(insertOne(user));
+            }
+            return statuses;
+        }
+    }
+
+    private UserImportStatus insertOne(User user) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = insertUserStatement().createPreparedStatement(connection);
+                    bindUser(ps, user);
+                    return ps;
+                }, keyHolder);
+                userEventPublisher.publish(List.of(UserEvent.created(withId(user, keyHolder.getKeys()))));
+            });
+            return UserImportStatus.CREATED;
+        } catch (DuplicateKeyException e) {
+            return UserImportStatus.DUPLICATE;
+        } catch (DataIntegrityViolationException e) {
+            return UserImportStatus.INVALID;
+        }
+    }
+
+    // Seule la colonne id est demandée : sans cela PostgreSQL renvoie toute la ligne insérée
+    private static PreparedStatementCreator insertUserStatement() {
+        return connection -> connection.prepareStatement(INSERT_USER_SQL, new String[]{"id"});
+    }
+
+    private static User withId(User user, Map<String, Object> keys) {
+        Number id = (Number) keys.values().iterator().next();
+        return new User(id.longValue(), user.firstname(), user.lastname(), user.email(), user.encryptedPassword());
+    }
+
+    private static void bindUser(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.firstname());
+        ps.setString(2, user.lastname());
+        ps.setString(3, user.email());
+        ps.setString(4, user.encryptedPassword());
+    }
+
     @Override
     public void deleteUser(long id) {
-        jpaRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            jpaRepository.deleteById(id);
+            userEventPublisher.publish(List.of(UserEvent.deleted(id)));
+        });
     }
 }
\ No newline at end of file
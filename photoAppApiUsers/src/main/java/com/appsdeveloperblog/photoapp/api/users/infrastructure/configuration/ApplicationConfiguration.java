@@ -1,22 +1,116 @@
 package com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration;
 
+import com.appsdeveloperblog.photoapp.common.exchanges.HttpExchangesSettings;
+import com.appsdeveloperblog.photoapp.common.identity.IdentitySettings;
+import feign.Logger;
+import jakarta.validation.Valid;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @ConfigurationProperties(prefix = "application")
+// Pas de @RefreshScope (incompatible AOT) : le ConfigurationPropertiesRebinder de Spring Cloud
+// relie ce bean en place à chaque /busrefresh
 @Data
-@RefreshScope
+@Validated
 public class ApplicationConfiguration {
 
     private Token token;
+    @Valid
+    private IdentitySettings identity = new IdentitySettings();
+    private Async async = new Async();
+    private Password password = new Password();
+    private BulkImport bulkImport = new BulkImport();
+    private UserCache userCache = new UserCache();
+    private Outbox outbox = new Outbox();
+    private FeignLogging feignLogging = new FeignLogging();
+    private AlbumCache albumCache = new AlbumCache();
+    private Hedging albumHedging = new Hedging();
+    private RetryBudget retryBudget = new RetryBudget();
+    private HttpExchangesSettings httpExchanges = new HttpExchangesSettings();
     private String loginUrlPath;
 
     @Data
     public static class Token {
         private long expirationTime;
         private String secret;
+        private boolean statelessPrincipal = false;
+    }
+
+    @Data
+    public static class Async {
+        private int concurrencyLimit = 200;
+    }
+
+    @Data
+    public static class Password {
+        private int bcryptStrength = 10;
+        private int hashingThreads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 100;
+        private long timeoutMillis = 5000;
+    }
+
+    @Data
+    public static class BulkImport {
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class UserCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Outbox {
+        private boolean relayEnabled = true;
+        private String transport = "bus";
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+        private Duration lease = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class FeignLogging {
+        private double sampleRate = 0.01;
+        private int maxBodyBytes = 2048;
+        private Logger.Level level = Logger.Level.BASIC;
+    }
+
+    @Data
+    public static class AlbumCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration maxAge = Duration.ofHours(1);
+        private Duration softTtl = Duration.ZERO;
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private double budgetRatio = 0.1;
+        private int minHedgesPerSecond = 1;
+        private Duration window = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class RetryBudget {
+        private boolean enabled = true;
+        private double ratio = 0.2;
+        private int minRetriesPerSecond = 1;
+        private Duration window = Duration.ofSeconds(10);
+        private Map<String, String> targets = new HashMap<>();
     }
 }
@@ -0,0 +1,54 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class AsyncConfiguration {
+
+    public static final String IO_TASK_EXECUTOR = "ioTaskExecutor";
+
+    // Exécuteur pour les appels bloquants (JDBC, Feign) lancés depuis les endpoints asynchrones :
+    // threads virtuels, concurrence bornée. Limite atteinte : refus immédiat (TaskRejectedException, 503)
+    // plutôt que d'attendre une place en bloquant le thread Tomcat appelant
+    @Bean(IO_TASK_EXECUTOR)
+    public AsyncTaskExecutor ioTaskExecutor(ApplicationConfiguration applicationConfiguration) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("io-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(applicationConfiguration.getAsync().getConcurrencyLimit());
+        executor.setRejectTasksWhenLimitReached(true);
+        executor.setTaskDecorator(new CompositeTaskDecorator(List.of(mdcPropagation(), securityContextPropagation())));
+        return executor;
+    }
+
+    // Authentification de l'appelant visible des tâches (ex: @PreAuthorize ou SecurityContextHolder côté service)
+    private static TaskDecorator securityContextPropagation() {
+        return DelegatingSecurityContextRunnable::new;
+    }
+
+    // Conserve traceId/spanId dans les logs des tâches asynchrones
+    private static TaskDecorator mdcPropagation() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        };
+    }
+}
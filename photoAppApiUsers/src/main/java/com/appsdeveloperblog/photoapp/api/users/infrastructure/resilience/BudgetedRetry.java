@@ -0,0 +1,145 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Instance {@code @Retry} adossée à un budget : chaque appel y est compté comme une requête, et un refus
+ * n'est compté comme épuisement que lorsqu'un retry aurait été programmé (jamais sur la dernière tentative).
+ * La décision elle-même reste au retry délégué, dont le prédicat consulte le même budget.
+ */
+class BudgetedRetry implements Retry {
+
+    private final Retry delegate;
+    private final Predicate<Throwable> retryable;
+    private final Predicate<Object> retryableResult;
+    // Le budget accorderait-il un retry maintenant ?
+    private final BooleanSupplier budgetAllows;
+    private final Runnable onRequest;
+    private final Runnable onExhausted;
+
+    BudgetedRetry(Retry delegate, Predicate<Throwable> retryable, Predicate<Object> retryableResult,
+                  BooleanSupplier budgetAllows, Runnable onRequest, Runnable onExhausted) {
+        this.delegate = delegate;
+        this.retryable = retryable;
+        this.retryableResult = retryableResult;
+        this.budgetAllows = budgetAllows;
+        this.onRequest = onRequest;
+        this.onExhausted = onExhausted;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public <T> Context<T> context() {
+        onRequest.run();
+        Context<T> context = delegate.context();
+        Attempts attempts = new Attempts();
+        return new Context<>() {
+            @Override
+            public void onComplete() {
+                context.onComplete();
+            }
+
+            @Override
+            public boolean onResult(T result) {
+                attempts.onResult(result);
+                return context.onResult(result);
+            }
+
+            @Override
+            public void onError(Exception exception) throws Exception {
+                attempts.onError(exception);
+                context.onError(exception);
+            }
+
+            @Override
+            public void onRuntimeError(RuntimeException runtimeException) {
+                attempts.onError(runtimeException);
+                context.onRuntimeError(runtimeException);
+            }
+        };
+    }
+
+    @Override
+    public <T> AsyncContext<T> asyncContext() {
+        onRequest.run();
+        AsyncContext<T> context = delegate.asyncContext();
+        Attempts attempts = new Attempts();
+        return new AsyncContext<>() {
+            @Override
+            public void onComplete() {
+                context.onComplete();
+            }
+
+            @Override
+            public long onError(Throwable throwable) {
+                // Comme Resilience4j, le prédicat porte sur la cause d'une exception asynchrone
+                boolean wrapped = throwable instanceof CompletionException || throwable instanceof ExecutionException;
+                attempts.onError(wrapped && throwable.getCause() != null ? throwable.getCause() : throwable);
+                return context.onError(throwable);
+            }
+
+            @Override
+            public long onResult(T result) {
+                attempts.onResult(result);
+                return context.onResult(result);
+            }
+        };
+    }
+
+    @Override
+    public RetryConfig getRetryConfig() {
+        return delegate.getRetryConfig();
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return delegate.getTags();
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return delegate.getEventPublisher();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    // Tentatives d'un appel : l'issue d'une tentative non finale et rejouable sans budget compte comme épuisement
+    private class Attempts {
+
+        private int count;
+
+        void onError(Throwable throwable) {
+            count++;
+            if (retryable.test(throwable)) {
+                deniedIfNotLast();
+            }
+        }
+
+        void onResult(Object result) {
+            count++;
+            if (retryableResult != null && retryableResult.test(result)) {
+                deniedIfNotLast();
+            }
+        }
+
+        private void deniedIfNotLast() {
+            if (count < delegate.getRetryConfig().getMaxAttempts() && !budgetAllows.getAsBoolean()) {
+                onExhausted.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.loadbalancer.HedgeGroup;
+import com.appsdeveloperblog.photoapp.common.resilience.LatencyPercentile;
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes couvertes (hedging) pour un appel idempotent : si la première tentative n'a pas répondu après le
+ * quantile observé des durées (borné par min-delay / max-delay), une seconde est lancée. La première réponse
+ * l'emporte ; l'autre tentative est annulée par interruption de son thread (virtuel : l'E/S socket en cours
+ * est interrompue). Les secondes tentatives sont débitées d'un {@link RetryBudget} dédié.
+ * Les erreurs ne sont pas couvertes : celle de la première tentative est rendue telle quelle, les retries
+ * restent l'affaire de @Retry. Les deux tentatives s'exécutent dans le même {@link HedgeGroup}, que le load
+ * balancer utilise pour envoyer la seconde vers une autre instance.
+ */
+@Slf4j
+public class RequestHedger {
+
+    private final ApplicationConfiguration.Hedging settings;
+    private final Executor executor;
+    private final LatencyPercentile latency;
+    private final RetryBudget budget;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    /**
+     * @param metricName compteur {metricName}{result} et jauge {metricName}.delay
+     */
+    public RequestHedger(String target, String metricName, ApplicationConfiguration.Hedging settings,
+                         Executor executor, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.executor = executor;
+        this.latency = new LatencyPercentile(settings.getPercentile(), settings.getWindow().toNanos());
+        this.budget = new RetryBudget(target, (int) settings.getWindow().toSeconds());
+        this.fired = counter(metricName, "fired", meterRegistry);
+        this.won = counter(metricName, "won", meterRegistry);
+        this.budgetExhausted = counter(metricName, "budget-exhausted", meterRegistry);
+        TimeGauge.builder(metricName + ".delay", this, TimeUnit.NANOSECONDS, RequestHedger::delayNanos)
+                .description("Délai avant la seconde tentative")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param attempt appel Feign à couvrir ; doit supporter l'interruption
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> attempt) {
+        String hedgeGroup = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Attempt<T>> hedge = new AtomicReference<>();
+        // Le budget rapporte les secondes tentatives au nombre d'appels
+        budget.recordRequest();
+
+        Attempt<T> primary = new Attempt<>(() -> HedgeGroup.call(hedgeGroup, attempt), result, false);
+        executor.execute(primary);
+
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        CompletableFuture.delayedExecutor(delayNanos(), TimeUnit.NANOSECONDS, executor).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!budget.canRetry(settings.getBudgetRatio(), settings.getMinHedgesPerSecond())) {
+                budgetExhausted.increment();
+                return;
+            }
+            budget.recordRetry();
+            fired.increment();
+            Attempt<T> second = new Attempt<>(() -> HedgeGroup.call(hedgeGroup, attempt), result, true);
+            hedge.set(second);
+            // Réponse arrivée entre-temps : whenComplete ne voit peut-être pas encore cette tentative
+            if (result.isDone()) {
+                second.cancel(true);
+                return;
+            }
+            // Contexte de l'appelant le temps de la soumission (repris par l'exécuteur), puis celui du thread
+            // de délai : ce thread est partagé, il ne doit pas garder la trace d'une autre requête
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            try {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                executor.execute(second);
+            } catch (RejectedExecutionException e) {
+                // Exécuteur saturé : la première tentative continue seule
+                log.debug("Hedge not submitted, executor saturated: {}", e.getMessage());
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        });
+
+        // Première réponse (ou annulation par le TimeLimiter) : la tentative restante est interrompue
+        result.whenComplete((value, error) -> {
+            primary.cancel(true);
+            Attempt<T> second = hedge.get();
+            if (second != null) {
+                second.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private long delayNanos() {
+        long min = settings.getMinDelay().toNanos();
+        long max = settings.getMaxDelay().toNanos();
+        long observed = latency.valueNanos();
+        return observed < 0 ? max : Math.max(min, Math.min(max, observed));
+    }
+
+    private static Counter counter(String metricName, String result, MeterRegistry meterRegistry) {
+        return Counter.builder(metricName).tag("result", result).register(meterRegistry);
+    }
+
+    private final class Attempt<T> extends FutureTask<T> {
+
+        private final CompletableFuture<T> result;
+        private final boolean hedge;
+        private final long start = System.nanoTime();
+
+        Attempt(Callable<T> callable, CompletableFuture<T> result, boolean hedge) {
+            super(callable);
+            this.result = result;
+            this.hedge = hedge;
+        }
+
+        @Override
+        protected void done() {
+            if (!hedge) {
+                // Mesurée aussi quand elle est annulée : sa durée réelle dépasse au moins celle-ci
+                latency.record(System.nanoTime() - start);
+            }
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                if (result.complete(get()) && hedge) {
+                    won.increment();
+                }
+            } catch (ExecutionException e) {
+                if (!hedge) {
+                    result.completeExceptionally(e.getCause());
+                } else {
+                    log.debug("Hedged attempt failed: {}", e.getCause().toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.springboot3.retry.monitoring.endpoint.RetryEndpoint;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.EndpointWebExtension;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ajoute l'état des budgets de retries à /actuator/retries.
+ */
+@Component
+@ConditionalOnAvailableEndpoint(endpoint = RetryEndpoint.class)
+@EndpointWebExtension(endpoint = RetryEndpoint.class)
+public class RetryBudgetEndpointExtension {
+
+    private final RetryRegistry retryRegistry;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+
+    public RetryBudgetEndpointExtension(RetryRegistry retryRegistry, RetryBudgetRegistry retryBudgetRegistry) {
+        this.retryRegistry = retryRegistry;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+    }
+
+    @ReadOperation
+    public RetryBudgetEndpointResponse getAllRetries() {
+        List<String> retries = retryRegistry.getAllRetries().stream()
+                .map(Retry::getName)
+                .sorted()
+                .toList();
+        return new RetryBudgetEndpointResponse(retries, retryBudgetRegistry.snapshots());
+    }
+
+    public record RetryBudgetEndpointResponse(List<String> retries, Map<String, RetryBudget.Snapshot> budgets) {
+    }
+}
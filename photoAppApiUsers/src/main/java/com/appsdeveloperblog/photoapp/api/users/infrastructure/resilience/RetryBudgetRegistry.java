@@ -0,0 +1,105 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Applique un {@link RetryBudget} aux instances {@code @Retry} déclarées dans resilience4j.retry.instances.
+ * Chaque instance est rattachée à une cible (application.retry-budget.targets, par défaut son propre nom) :
+ * les instances d'une même cible partagent le budget. Chaque appel compte comme une requête, quelle que soit
+ * son issue. Budget épuisé : l'erreur n'est plus rejouée et part directement vers le fallback.
+ */
+@Component
+@Slf4j
+public class RetryBudgetRegistry implements SmartInitializingSingleton {
+
+    private final RetryRegistry retryRegistry;
+    private final ApplicationConfiguration applicationConfiguration;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> exhausted = new ConcurrentHashMap<>();
+
+    public RetryBudgetRegistry(RetryRegistry retryRegistry, ApplicationConfiguration applicationConfiguration,
+                               MeterRegistry meterRegistry) {
+        this.retryRegistry = retryRegistry;
+        this.applicationConfiguration = applicationConfiguration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ApplicationConfiguration.RetryBudget retryBudget = applicationConfiguration.getRetryBudget();
+        if (!retryBudget.isEnabled()) {
+            return;
+        }
+        for (Retry retry : retryRegistry.getAllRetries()) {
+            String target = retryBudget.getTargets().getOrDefault(retry.getName(), retry.getName());
+            RetryBudget budget = budgets.computeIfAbsent(target, this::newBudget);
+            retryRegistry.replace(retry.getName(), withBudget(retry, budget));
+            log.info("Retry instance '{}' bound to retry budget '{}'", retry.getName(), target);
+        }
+    }
+
+    // Budgets par cible, triés pour l'endpoint actuator
+    public Map<String, RetryBudget.Snapshot> snapshots() {
+        ApplicationConfiguration.RetryBudget retryBudget = applicationConfiguration.getRetryBudget();
+        Map<String, RetryBudget.Snapshot> snapshots = new TreeMap<>();
+        budgets.forEach((target, budget) ->
+                snapshots.put(target, budget.snapshot(retryBudget.getRatio(), retryBudget.getMinRetriesPerSecond())));
+        return snapshots;
+    }
+
+    private Retry withBudget(Retry retry, RetryBudget budget) {
+        RetryConfig config = retry.getRetryConfig();
+        // Prédicats déjà résolus depuis retry-exceptions / ignore-exceptions : on les reprend tels quels
+        Predicate<Throwable> retryable = config.getExceptionPredicate();
+        Predicate<Object> resultPredicate = config.getResultPredicate();
+
+        RetryConfig budgeted = RetryConfig.<Object>from(config)
+                .retryExceptions()
+                .ignoreExceptions()
+                .retryOnException(throwable -> retryable.test(throwable) && canRetry(budget))
+                .retryOnResult(result -> resultPredicate != null && resultPredicate.test(result) && canRetry(budget))
+                .build();
+
+        Retry budgetedRetry = Retry.of(retry.getName(), budgeted, retry.getTags());
+        // Le retry n'est débité qu'une fois réellement programmé, pas sur la dernière tentative
+        budgetedRetry.getEventPublisher().onRetry(event -> budget.recordRetry());
+        Counter exhaustedCounter = exhausted.get(budget.getTarget());
+        return new BudgetedRetry(budgetedRetry, retryable, resultPredicate, () -> canRetry(budget),
+                budget::recordRequest, exhaustedCounter::increment);
+    }
+
+    private boolean canRetry(RetryBudget budget) {
+        ApplicationConfiguration.RetryBudget retryBudget = applicationConfiguration.getRetryBudget();
+        return budget.canRetry(retryBudget.getRatio(), retryBudget.getMinRetriesPerSecond());
+    }
+
+    private RetryBudget newBudget(String target) {
+        RetryBudget budget = new RetryBudget(target, (int) applicationConfiguration.getRetryBudget().getWindow().toSeconds());
+        exhausted.put(target, Counter.builder("resilience4j.retry.budget.exhausted").tag("target", target)
+                .description("Retries refusés, budget épuisé").register(meterRegistry));
+        Gauge.builder("resilience4j.retry.budget.utilization", budget, b -> {
+                    ApplicationConfiguration.RetryBudget retryBudget = applicationConfiguration.getRetryBudget();
+                    return b.snapshot(retryBudget.getRatio(), retryBudget.getMinRetriesPerSecond()).utilization();
+                })
+                .tag("target", target)
+                .description("Part du budget de retries consommée sur la fenêtre")
+                .register(meterRegistry);
+        return budget;
+    }
+}
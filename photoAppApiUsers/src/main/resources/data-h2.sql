@@ -0,0 +1,3 @@
+-- Utilisateur du profil h2, utilisé par la tâche concurrencyBenchmark (build.gradle) ; mot de passe : benchmark-pw1
+INSERT INTO users (firstname, lastname, email, encrypted_password)
+VALUES ('Bench', 'Mark', 'benchmark@photoapp.local', '$2a$10$87.l9Z65TGsCrAebSiEBxO8mvQmGDkYMH6421n.uyWIlGLZbQVBsC');
@@ -0,0 +1,141 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserPage;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.TokenValidationRequest;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.mapper.UserWebMapper;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.JwtTokenUtil;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.AlbumServiceSyncClient;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.CachingAlbumClient;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service.UserImportService;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.identity.IdentityHeaderCodec;
+import com.appsdeveloperblog.photoapp.common.identity.ServiceIdentitySigner;
+import com.appsdeveloperblog.photoapp.common.identity.TrustedIdentityVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserControllerTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("test-identity-secret-0123456789ab".getBytes());
+    private static final String TOKEN = "Bearer token";
+    private static final User USER = new User(7L, "first", "last", "user@test.com", "hash");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserUseCase userUseCase = mock(UserUseCase.class);
+    private final UserWebMapper userWebMapper = mock(UserWebMapper.class);
+    private final JwtTokenUtil jwtTokenUtil = mock(JwtTokenUtil.class);
+    private final AlbumServiceSyncClient albumServiceSyncClient = mock(AlbumServiceSyncClient.class);
+    private final Claims userClaims = mock(Claims.class);
+    private ServiceIdentitySigner signer;
+    private UserController controller;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration configuration = new ApplicationConfiguration();
+        configuration.getIdentity().setSecret(SECRET);
+        IdentityHeaderCodec codec = new IdentityHeaderCodec(() -> configuration.getIdentity().getSecret());
+        signer = new ServiceIdentitySigner(codec, objectMapper, "users-ws");
+        controller = new UserController(mock(Environment.class), userUseCase, userWebMapper, jwtTokenUtil,
+                albumServiceSyncClient, mock(CachingAlbumClient.class), Runnable::run, mock(UserImportService.class),
+                new TrustedIdentityVerifier(configuration::getIdentity, codec, objectMapper), signer, objectMapper);
+
+        when(jwtTokenUtil.getUserId(userClaims)).thenReturn(7L);
+        when(userUseCase.findUsersByIds(any())).thenReturn(List.of(USER));
+        when(userWebMapper.fromDomain(USER)).thenReturn(new UserResponse(7L, "user@test.com", "first", "last"));
+        when(albumServiceSyncClient.getAlbumsByUserIds(anyString(), anyString(), any()))
+                .thenReturn(Map.of(7L, UserAlbums.fresh(List.of())));
+    }
+
+    @Test
+    void userMayLookUpTheirOwnId() {
+        var response = controller.findUsersByIds(TOKEN, null, userClaims, List.of(7L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).singleElement().satisfies(user -> assertThat(user.getId()).isEqualTo(7L));
+    }
+
+    @Test
+    void userAskingForAnotherIdIsForbidden() {
+        var response = controller.findUsersByIds(TOKEN, null, userClaims, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(userUseCase, never()).findUsersByIds(any());
+        verify(albumServiceSyncClient, never()).getAlbumsByUserIds(any(), any(), any());
+    }
+
+    @Test
+    void callerWithoutVerifiedTokenIsForbidden() {
+        var response = controller.findUsersByIds(TOKEN, null, null, List.of(7L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void serviceIdentityMayLookUpAnyId() {
+        var response = controller.findUsersByIds(TOKEN, signer.sign().orElseThrow(), null, List.of(7L, 8L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(albumServiceSyncClient).getAlbumsByUserIds(anyString(), anyString(), any());
+    }
+
+    @Test
+    void listingWithoutPagingParametersReturnsEveryUser() {
+        when(userUseCase.findAllUser()).thenReturn(List.of(USER));
+
+        var response = controller.findAllUser(null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(1);
+        verify(userUseCase, never()).findUserPage(any(), anyInt());
+    }
+
+    @Test
+    void listingIsPagedOnceACursorIsGiven() {
+        when(userUseCase.findUserPage(7L, 100)).thenReturn(new UserPage(List.of(USER), 7L));
+
+        var response = controller.findAllUser(7L, null);
+
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("7");
+        verify(userUseCase, never()).findAllUser();
+    }
+
+    @Test
+    void tokenValidationIsForbiddenWithoutServiceIdentity() {
+        var response = controller.validateTokens(null, List.of(new TokenValidationRequest("token", 7L)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(jwtTokenUtil, never()).parseClaims(anyString());
+    }
+
+    @Test
+    void tokenValidationIsServedToServiceIdentity() {
+        when(jwtTokenUtil.parseClaims("token")).thenReturn(userClaims);
+        when(userClaims.getSubject()).thenReturn("user@test.com");
+
+        var response = controller.validateTokens(signer.sign().orElseThrow(), List.of(new TokenValidationRequest("Bearer token", 7L)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).singleElement().satisfies(validation -> assertThat(validation.valid()).isTrue());
+    }
+}
@@ -0,0 +1,34 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 2, 1, 5000, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encodeAllKeepsOrder() {
+        List<String> encoded = encoder.encodeAll(List.of("password1", "password2", "password3"));
+
+        assertThat(encoded).hasSize(3);
+        assertThat(encoder.matches("password1", encoded.get(0))).isTrue();
+        assertThat(encoder.matches("password3", encoded.get(2))).isTrue();
+    }
+
+    @Test
+    void upgradesHashesWithAnotherCost() {
+        assertThat(encoder.upgradeEncoding(encoder.encode("password1"))).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$10$abcdefghijklmnopqrstuv")).isTrue();
+    }
+}
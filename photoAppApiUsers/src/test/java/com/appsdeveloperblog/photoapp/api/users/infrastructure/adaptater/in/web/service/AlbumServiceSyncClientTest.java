@@ -0,0 +1,44 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.AlbumsStatus;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserAlbums;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlbumServiceSyncClientTest {
+
+    private static final AlbumResponse ALBUM = new AlbumResponse(10L, 1L, "name", "description");
+
+    private final AlbumServiceClient albumServiceClient = mock(AlbumServiceClient.class);
+    private final AlbumFallbackCache albumFallbackCache = new AlbumFallbackCache(new ApplicationConfiguration(), new SimpleMeterRegistry());
+    private final AlbumServiceSyncClient client = new AlbumServiceSyncClient(albumServiceClient, albumFallbackCache);
+
+    @Test
+    void batchLookupReturnsEveryRequestedUserAndFeedsTheFallbackCache() {
+        when(albumServiceClient.fetchAlbumsByUserIds("token", "identity", List.of(1L, 2L))).thenReturn(List.of(ALBUM));
+
+        Map<Long, UserAlbums> albums = client.getAlbumsByUserIds("token", "identity", List.of(1L, 2L));
+
+        assertThat(albums).containsEntry(1L, UserAlbums.fresh(List.of(ALBUM)))
+                .containsEntry(2L, UserAlbums.fresh(List.of()));
+        assertThat(albumFallbackCache.get(2L)).isPresent();
+    }
+
+    @Test
+    void fallbackServesTheLastKnownListOrUnavailableButNeverAFakeAlbum() {
+        albumFallbackCache.put(1L, List.of(ALBUM));
+
+        assertThat(albumFallbackCache.fallback(1L)).isEqualTo(UserAlbums.stale(List.of(ALBUM)));
+        assertThat(albumFallbackCache.fallback(2L).status()).isEqualTo(AlbumsStatus.UNAVAILABLE);
+        assertThat(albumFallbackCache.fallback(2L).albums()).isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.service;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.in.UserUseCase;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.domain.model.UserImportStatus;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserImportResultResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.dto.UserImportSummaryResponse;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.BoundedPasswordEncoder;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.in.web.security.PasswordHashingRejectedException;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class UserImportServiceTest {
+
+    private final UserUseCase userUseCase = mock(UserUseCase.class);
+    private final BoundedPasswordEncoder passwordEncoder = mock(BoundedPasswordEncoder.class);
+    private final List<UserImportResultResponse> results = new ArrayList<>();
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration configuration = new ApplicationConfiguration();
+        configuration.getBulkImport().setBatchSize(2);
+        service = new UserImportService(userUseCase, passwordEncoder, Validation.buildDefaultValidatorFactory().getValidator(),
+                configuration, new SimpleMeterRegistry(), new ObjectMapper());
+        when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation ->
+                ((List<CharSequence>) invocation.getArgument(0)).stream().map(password -> "hash:" + password).toList());
+        when(userUseCase.importUsers(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<User>) invocation.getArgument(0)).size(), UserImportStatus.CREATED));
+    }
+
+    @Test
+    void csvQuotedFieldsKeepCommasAndQuotes() throws IOException {
+        String csv = """
+                email,firstname,lastname,password
+                "jane@test.com","Jane","Doe, Jr.","pa""ss,word"
+                """;
+
+        UserImportSummaryResponse summary = importCsv(csv);
+
+        assertThat(summary.created()).isEqualTo(1);
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userUseCase).importUsers(users.capture());
+        assertThat(users.getValue().get(0).lastname()).isEqualTo("Doe, Jr.");
+        verify(passwordEncoder).encodeAll(List.of("pa\"ss,word"));
+    }
+
+    @Test
+    void csvUnterminatedQuoteIsReportedAsInvalidLine() throws IOException {
+        String csv = """
+                email,firstname,lastname,password
+                jane@test.com,"Jane,Doe,password1
+                john@test.com,John,Doe,password2
+                """;
+
+        UserImportSummaryResponse summary = importCsv(csv);
+
+        assertThat(summary.invalid()).isEqualTo(1);
+        assertThat(summary.created()).isEqualTo(1);
+        assertThat(results.get(0).line()).isEqualTo(2);
+        assertThat(results.get(0).status()).isEqualTo("INVALID");
+    }
+
+    @Test
+    void splitCsvLineRejectsTextAfterClosingQuote() {
+        assertThat(UserImportService.splitCsvLine("a,,\"b\"")).containsExactly("a", "", "b");
+        assertThatThrownBy(() -> UserImportService.splitCsvLine("\"a\"b,c")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void hashingRejectionMidStreamBecomesPerLineFailures() throws IOException {
+        when(passwordEncoder.encodeAll(anyList()))
+                .thenAnswer(invocation -> List.of("hash1", "hash2"))
+                .thenThrow(new PasswordHashingRejectedException("Password hashing executor saturated"));
+        String ndjson = """
+                {"firstname":"Jane","lastname":"Doe","email":"jane@test.com","password":"password1"}
+                {"firstname":"John","lastname":"Doe","email":"john@test.com","password":"password2"}
+                {"firstname":"Jack","lastname":"Doe","email":"jack@test.com","password":"password3"}
+                """;
+
+        UserImportSummaryResponse summary = service.importUsers(input(ndjson), UserImportService.Format.NDJSON, results::add);
+
+        assertThat(summary.total()).isEqualTo(3);
+        assertThat(summary.created()).isEqualTo(2);
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(results).extracting(UserImportResultResponse::status).containsExactly("CREATED", "CREATED", "FAILED");
+    }
+
+    @Test
+    void storageFailureBecomesPerLineFailures() throws IOException {
+        when(userUseCase.importUsers(anyList())).thenThrow(new IllegalStateException("database down"));
+        String ndjson = """
+                {"firstname":"Jane","lastname":"Doe","email":"jane@test.com","password":"password1"}
+                """;
+
+        UserImportSummaryResponse summary = service.importUsers(input(ndjson), UserImportService.Format.NDJSON, results::add);
+
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(results.get(0).email()).isEqualTo("jane@test.com");
+    }
+
+    private UserImportSummaryResponse importCsv(String csv) throws IOException {
+        return service.importUsers(input(csv), UserImportService.Format.CSV, results::add);
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.messaging.outbox;
+
+import com.appsdeveloperblog.photoapp.api.users.application.port.out.UserEventTransport;
+import com.appsdeveloperblog.photoapp.api.users.domain.event.UserEvent;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserOutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JpaUserOutboxRepository outboxRepository = mock(JpaUserOutboxRepository.class);
+    private final JpaUserOutboxDeadLetterRepository deadLetterRepository = mock(JpaUserOutboxDeadLetterRepository.class);
+    private final UserEventTransport transport = mock(UserEventTransport.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserOutboxRelay relay = new UserOutboxRelay(outboxRepository, deadLetterRepository, transport,
+            new TransactionTemplate(transactionManager), objectMapper, new ApplicationConfiguration(), new SimpleMeterRegistry());
+
+    @Test
+    void batchIsSentOutsideTheClaimTransactionAndDeletedAfterwards() throws Exception {
+        UserOutboxEntity row = row(1L, objectMapper.writeValueAsString(UserEvent.deleted(7L)));
+        when(outboxRepository.findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(row));
+
+        assertThat(relay.relayBatch(10)).isEqualTo(1);
+
+        InOrder order = inOrder(transactionManager, transport, outboxRepository);
+        order.verify(transactionManager).commit(any());
+        order.verify(transport).send(List.of(objectMapper.readValue(row.getPayload(), UserEvent.class)));
+        order.verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        assertThat(row.getLockedUntil()).isAfter(Instant.now());
+    }
+
+    @Test
+    void failedSendKeepsTheRowsAndReleasesTheLease() throws Exception {
+        UserOutboxEntity row = row(1L, objectMapper.writeValueAsString(UserEvent.deleted(7L)));
+        when(outboxRepository.findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(row));
+        doThrow(new IllegalStateException("nack")).when(transport).send(anyList());
+
+        assertThatThrownBy(() -> relay.relayBatch(10)).hasMessage("nack");
+
+        verify(outboxRepository).releaseLease(List.of(1L));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void unreadableRowIsDeadLetteredWithoutBlockingTheOthers() throws Exception {
+        UserOutboxEntity poison = row(1L, "{not json");
+        UserOutboxEntity valid = row(2L, objectMapper.writeValueAsString(UserEvent.deleted(7L)));
+        when(outboxRepository.findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(poison, valid));
+
+        assertThat(relay.relayBatch(2)).isEqualTo(2);
+
+        ArgumentCaptor<UserOutboxDeadLetterEntity> deadLetter = ArgumentCaptor.forClass(UserOutboxDeadLetterEntity.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getOutboxId()).isEqualTo(1L);
+        assertThat(deadLetter.getValue().getPayload()).isEqualTo("{not json");
+        verify(outboxRepository).delete(poison);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    void batchOfPoisonRowsOnlySendsNothing() {
+        UserOutboxEntity poison = row(1L, "{not json");
+        when(outboxRepository.findByLockedUntilIsNullOrLockedUntilBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(poison));
+
+        assertThat(relay.relayBatch(1)).isEqualTo(1);
+
+        verify(transport, never()).send(anyList());
+        verify(outboxRepository).delete(poison);
+    }
+
+    private static UserOutboxEntity row(long id, String payload) {
+        return UserOutboxEntity.builder()
+                .id(id)
+                .eventType("DELETED")
+                .userId(7L)
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
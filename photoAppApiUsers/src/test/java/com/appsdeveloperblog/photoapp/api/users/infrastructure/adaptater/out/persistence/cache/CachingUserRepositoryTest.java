@@ -0,0 +1,88 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.cache;
+
+import com.appsdeveloperblog.photoapp.api.users.domain.model.User;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.adaptater.out.persistence.jpa.repository.JpaUserRepositoryAdapter;
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingUserRepositoryTest {
+
+    private static final User OLD = new User(1L, "Jane", "Doe", "jane@test.com", "hash");
+    private static final User NEW = new User(1L, "Jane", "Smith", "jane@test.com", "hash");
+
+    private final JpaUserRepositoryAdapter delegate = mock(JpaUserRepositoryAdapter.class);
+    private final CachingUserRepository repository =
+            new CachingUserRepository(delegate, new ApplicationConfiguration(), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(OLD));
+
+        repository.findById(1L);
+        assertThat(repository.findById(1L)).contains(OLD);
+        assertThat(repository.findByEmail("jane@test.com")).contains(OLD);
+
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    void readRacingAWriteDoesNotCacheTheStaleRow() {
+        when(delegate.save(any())).thenReturn(NEW);
+        // La lecture charge l'ancienne ligne, l'écriture s'intercale avant l'insertion en cache
+        when(delegate.findById(1L))
+                .thenAnswer(invocation -> {
+                    repository.save(NEW);
+                    return Optional.of(OLD);
+                })
+                .thenReturn(Optional.of(NEW));
+
+        assertThat(repository.findById(1L)).contains(OLD);
+
+        assertThat(repository.findById(1L)).contains(NEW);
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    void writeIsEvictedAgainAfterCommit() {
+        when(delegate.save(any())).thenReturn(NEW);
+        when(delegate.findById(1L)).thenReturn(Optional.of(OLD), Optional.of(NEW));
+        TransactionSynchronizationManager.initSynchronization();
+
+        repository.save(NEW);
+        // Lecture entre l'écriture et le commit : l'ancienne ligne est encore visible et mise en cache
+        assertThat(repository.findById(1L)).contains(OLD);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(repository.findById(1L)).contains(NEW);
+    }
+
+    @Test
+    void deleteEvictsBothIndexes() {
+        when(delegate.findByEmail("jane@test.com")).thenReturn(Optional.of(OLD), Optional.empty());
+        repository.findByEmail("jane@test.com");
+
+        repository.deleteUser(1L);
+
+        assertThat(repository.findByEmail("jane@test.com")).isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncConfigurationTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void cleanUp() {
+        release.countDown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void saturatedExecutorRejectsInsteadOfBlockingTheCaller() throws Exception {
+        AsyncTaskExecutor executor = ioTaskExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    void taskRunsWithTheCallerAuthentication() throws Exception {
+        AsyncTaskExecutor executor = ioTaskExecutor(10);
+        Authentication caller = new TestingAuthenticationToken("user@test.com", null, "USER");
+        SecurityContextHolder.getContext().setAuthentication(caller);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            done.countDown();
+        });
+
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).hasValue(caller);
+    }
+
+    private static AsyncTaskExecutor ioTaskExecutor(int concurrencyLimit) {
+        ApplicationConfiguration applicationConfiguration = new ApplicationConfiguration();
+        applicationConfiguration.getAsync().setConcurrencyLimit(concurrencyLimit);
+        return new AsyncConfiguration().ioTaskExecutor(applicationConfiguration);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    // Contexte MDC laissé par une tâche sur son thread, différent de celui qu'elle y a trouvé
+    private final Queue<Map<String, String>> leaks = new ConcurrentLinkedQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test
+    void slowFirstAttemptIsHedgedAndInterrupted() throws Exception {
+        RequestHedger hedger = hedger(settings(1, 1), pool);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        String result = hedger.submit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    TimeUnit.SECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return "first";
+            }
+            return "second";
+        }).get(2, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("second");
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("test.hedge").tag("result", "fired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void secondAttemptRunsWithTheCallerContextAndTheDelayThreadKeepsNone() throws Exception {
+        RequestHedger hedger = hedger(settings(1, 1), mdcPropagating(pool));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<String> secondTraceId = new AtomicReference<>();
+
+        MDC.put("traceId", "abc");
+        hedger.submit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                awaitQuietly(release);
+                return "first";
+            }
+            secondTraceId.set(MDC.get("traceId"));
+            return "second";
+        }).get(2, TimeUnit.SECONDS);
+        release.countDown();
+        MDC.clear();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(secondTraceId).hasValue("abc");
+        assertThat(leaks).isEmpty();
+    }
+
+    @Test
+    void exhaustedBudgetLeavesTheFirstAttemptAlone() throws Exception {
+        ApplicationConfiguration.Hedging settings = settings(1, 1);
+        settings.setBudgetRatio(0);
+        settings.setMinHedgesPerSecond(0);
+        RequestHedger hedger = hedger(settings, pool);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.submit(() -> {
+            attempts.incrementAndGet();
+            awaitQuietly(new CountDownLatch(1), 100);
+            return "first";
+        }).get(2, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("first");
+        assertThat(attempts).hasValue(1);
+        assertThat(meterRegistry.get("test.hedge").tag("result", "budget-exhausted").counter().count()).isEqualTo(1);
+    }
+
+    private RequestHedger hedger(ApplicationConfiguration.Hedging settings, Executor executor) {
+        return new RequestHedger("album-ws.hedge", "test.hedge", settings, executor, meterRegistry);
+    }
+
+    private static ApplicationConfiguration.Hedging settings(long minDelayMillis, long maxDelayMillis) {
+        ApplicationConfiguration.Hedging settings = new ApplicationConfiguration.Hedging();
+        settings.setMinDelay(Duration.ofMillis(minDelayMillis));
+        settings.setMaxDelay(Duration.ofMillis(maxDelayMillis));
+        return settings;
+    }
+
+    // Comme ioTaskExecutor : contexte MDC de l'appelant repris par la tâche, effacé à la fin
+    private Executor mdcPropagating(Executor executor) {
+        return task -> {
+            Map<String, String> context = contextMap();
+            executor.execute(() -> {
+                MDC.setContextMap(context);
+                try {
+                    task.run();
+                } finally {
+                    if (!contextMap().equals(context)) {
+                        leaks.add(contextMap());
+                    }
+                    MDC.clear();
+                }
+            });
+        };
+    }
+
+    private static Map<String, String> contextMap() {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return context != null ? context : Map.of();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        awaitQuietly(latch, 5_000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.appsdeveloperblog.photoapp.api.users.infrastructure.resilience;
+
+import com.appsdeveloperblog.photoapp.api.users.infrastructure.configuration.ApplicationConfiguration;
+import com.appsdeveloperblog.photoapp.common.resilience.RetryBudget;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetRegistryTest {
+
+    private static final String INSTANCE = "album-ws";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void everyCallCountsAsARequestWhateverItsOutcome() {
+        RetryRegistry retryRegistry = retryRegistry(3);
+        RetryBudgetRegistry registry = registry(retryRegistry, 0, 1);
+
+        assertThatThrownBy(() -> retryRegistry.retry(INSTANCE).executeSupplier(this::failing))
+                .isInstanceOf(IllegalStateException.class);
+        retryRegistry.retry(INSTANCE).executeSupplier(() -> "ok");
+
+        RetryBudget.Snapshot snapshot = registry.snapshots().get(INSTANCE);
+        assertThat(snapshot.requests()).isEqualTo(2);
+        assertThat(snapshot.retries()).isEqualTo(2);
+        assertThat(calls).hasValue(3);
+        // La dernière tentative échouée n'aurait pas été rejouée : pas d'épuisement
+        assertThat(exhausted()).isZero();
+    }
+
+    @Test
+    void deniedRetryIsCountedAsExhausted() {
+        RetryRegistry retryRegistry = retryRegistry(3);
+        RetryBudgetRegistry registry = registry(retryRegistry, 0, 0);
+
+        assertThatThrownBy(() -> retryRegistry.retry(INSTANCE).executeSupplier(this::failing))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(exhausted()).isEqualTo(1);
+        assertThat(registry.snapshots().get(INSTANCE).requests()).isEqualTo(1);
+    }
+
+    @Test
+    void finalAttemptIsNeverCountedAsExhausted() {
+        RetryRegistry retryRegistry = retryRegistry(1);
+        registry(retryRegistry, 0, 0);
+
+        assertThatThrownBy(() -> retryRegistry.retry(INSTANCE).executeSupplier(this::failing))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(exhausted()).isZero();
+    }
+
+    private String failing() {
+        calls.incrementAndGet();
+        throw new IllegalStateException("album-ws down");
+    }
+
+    private double exhausted() {
+        return meterRegistry.get("resilience4j.retry.budget.exhausted").tag("target", INSTANCE).counter().count();
+    }
+
+    private static RetryRegistry retryRegistry(int maxAttempts) {
+        RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+        retryRegistry.retry(INSTANCE, RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(IllegalStateException.class)
+                .build());
+        return retryRegistry;
+    }
+
+    private RetryBudgetRegistry registry(RetryRegistry retryRegistry, double ratio, int minRetriesPerSecond) {
+        ApplicationConfiguration applicationConfiguration = new ApplicationConfiguration();
+        applicationConfiguration.getRetryBudget().setRatio(ratio);
+        applicationConfiguration.getRetryBudget().setMinRetriesPerSecond(minRetriesPerSecond);
+        RetryBudgetRegistry registry = new RetryBudgetRegistry(retryRegistry, applicationConfiguration, meterRegistry);
+        registry.afterSingletonsInstantiated();
+        return registry;
+    }
+}
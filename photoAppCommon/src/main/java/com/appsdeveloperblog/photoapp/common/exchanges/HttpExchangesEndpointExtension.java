@@ -0,0 +1,34 @@
+package com.appsdeveloperblog.photoapp.common.exchanges;
+
+import org.springframework.boot.actuate.endpoint.OperationResponseBody;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.EndpointWebExtension;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangesEndpoint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ajoute à /actuator/httpexchanges les percentiles de latence par modèle d'URI.
+ * Déclarée en @Bean par chaque service, sous @ConditionalOnAvailableEndpoint.
+ */
+@EndpointWebExtension(endpoint = HttpExchangesEndpoint.class)
+public class HttpExchangesEndpointExtension {
+
+    private final SampledHttpExchangeRepository repository;
+
+    public HttpExchangesEndpointExtension(SampledHttpExchangeRepository repository) {
+        this.repository = repository;
+    }
+
+    @ReadOperation
+    public SampledHttpExchangesDescriptor httpExchanges() {
+        return new SampledHttpExchangesDescriptor(repository.findAll(), repository.latencyByUri());
+    }
+
+    public record SampledHttpExchangesDescriptor(List<HttpExchange> exchanges,
+                                                 Map<String, SampledHttpExchangeRepository.UriLatency> latency)
+            implements OperationResponseBody {
+    }
+}
@@ -0,0 +1,18 @@
+package com.appsdeveloperblog.photoapp.common.exchanges;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+// Réglages de l'échantillonnage de /actuator/httpexchanges, liés sous application.http-exchanges par chaque service
+@Data
+public class HttpExchangesSettings {
+    private int capacity = 1024;
+    private double sampleRate = 0.01;
+    private double slowSampleRate = 1.0;
+    private double errorSampleRate = 1.0;
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    private List<String> requestHeaders = List.of("Content-Type", "Accept", "User-Agent", "X-Forwarded-For");
+    private List<String> responseHeaders = List.of("Content-Type", "Retry-After");
+}
@@ -0,0 +1,118 @@
+package com.appsdeveloperblog.photoapp.common.exchanges;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Remplace InMemoryHttpExchangeRepository (liste synchronisée, tous les échanges) :
+ * anneau de taille fixe sans verrou, alimenté seulement par les échanges échantillonnés.
+ * Les erreurs 5xx et les requêtes lentes ont leur propre taux, par défaut 100%.
+ * Les latences de toutes les requêtes sont agrégées par modèle d'URI pour l'endpoint httpexchanges.
+ */
+public class SampledHttpExchangeRepository implements HttpExchangeRepository {
+
+    static final String LATENCY_TIMER = "http.exchanges.latency";
+
+    private final Supplier<HttpExchangesSettings> settings;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReferenceArray<HttpExchange> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    // uri -> méthode -> timer : un hit ne construit ni clé ni lambda
+    private final Map<String, Map<String, Timer>> latencyByUri = new ConcurrentHashMap<>();
+
+    /**
+     * @param settings application.http-exchanges du service, relu à chaque décision (refresh)
+     */
+    public SampledHttpExchangeRepository(Supplier<HttpExchangesSettings> settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        // Capacité arrondie à la puissance de 2 supérieure : l'index est un simple masque
+        int capacity = Integer.highestOneBit(Math.max(2, settings.get().getCapacity()) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    // Décision prise après la réponse, avant toute copie de l'échange
+    public boolean accepts(int status, long elapsedNanos) {
+        HttpExchangesSettings httpExchanges = settings.get();
+        double rate;
+        if (status >= 500) {
+            rate = httpExchanges.getErrorSampleRate();
+        } else if (elapsedNanos >= httpExchanges.getSlowThreshold().toNanos()) {
+            rate = httpExchanges.getSlowSampleRate();
+        } else {
+            rate = httpExchanges.getSampleRate();
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public void recordLatency(String method, String uriTemplate, long elapsedNanos) {
+        Map<String, Timer> byMethod = latencyByUri.get(uriTemplate);
+        if (byMethod == null) {
+            byMethod = latencyByUri.computeIfAbsent(uriTemplate, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byMethod.get(method);
+        if (timer == null) {
+            timer = byMethod.computeIfAbsent(method, key -> Timer.builder(LATENCY_TIMER)
+                    .tag("method", method)
+                    .tag("uri", uriTemplate)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void add(HttpExchange httpExchange) {
+        ring.set((int) (cursor.getAndIncrement() & mask), httpExchange);
+    }
+
+    // Du plus récent au plus ancien, comme InMemoryHttpExchangeRepository
+    @Override
+    public List<HttpExchange> findAll() {
+        long end = cursor.get();
+        long start = Math.max(0, end - ring.length());
+        List<HttpExchange> exchanges = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            HttpExchange exchange = ring.get((int) (i & mask));
+            if (exchange != null) {
+                exchanges.add(exchange);
+            }
+        }
+        return exchanges;
+    }
+
+    public Map<String, UriLatency> latencyByUri() {
+        Map<String, UriLatency> latencies = new TreeMap<>();
+        latencyByUri.forEach((uri, byMethod) -> byMethod.forEach((method, timer) ->
+                latencies.put(method + " " + uri, UriLatency.of(timer.takeSnapshot()))));
+        return latencies;
+    }
+
+    public record UriLatency(long count, double meanMillis, double maxMillis, Map<String, Double> percentilesMillis) {
+
+        static UriLatency of(HistogramSnapshot snapshot) {
+            Map<String, Double> percentiles = new TreeMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+            }
+            return new UriLatency(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+        }
+    }
+}
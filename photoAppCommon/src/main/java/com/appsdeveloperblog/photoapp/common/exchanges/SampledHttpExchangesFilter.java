@@ -0,0 +1,151 @@
+package com.appsdeveloperblog.photoapp.common.exchanges;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.boot.actuate.web.exchanges.Include;
+import org.springframework.boot.actuate.web.exchanges.servlet.HttpExchangesFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remplace le HttpExchangesFilter de Spring Boot, qui copie les en-têtes de chaque requête avant l'ajout.
+ * Ici rien n'est copié tant que l'échange n'est pas retenu par l'échantillonnage ; seuls les en-têtes listés
+ * dans application.http-exchanges sont alors capturés. Les requêtes asynchrones sont enregistrées à la fin
+ * du traitement, pas au retour du premier dispatch.
+ */
+public class SampledHttpExchangesFilter extends HttpExchangesFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SampledHttpExchangeRepository repository;
+    private final Supplier<HttpExchangesSettings> settings;
+
+    public SampledHttpExchangesFilter(SampledHttpExchangeRepository repository, Supplier<HttpExchangesSettings> settings) {
+        super(repository, Include.defaultIncludes());
+        this.repository = repository;
+        this.settings = settings;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                record(request, response, start, failed);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start, boolean failed) {
+        long elapsedNanos = System.nanoTime() - start;
+        int status = failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus();
+        repository.recordLatency(request.getMethod(), uriTemplate(request), elapsedNanos);
+        if (repository.accepts(status, elapsedNanos)) {
+            HttpExchange exchange = exchange(request, response, status, elapsedNanos);
+            if (exchange != null) {
+                repository.add(exchange);
+            }
+        }
+    }
+
+    private HttpExchange exchange(HttpServletRequest request, HttpServletResponse response, int status, long elapsedNanos) {
+        URI uri;
+        try {
+            String query = request.getQueryString();
+            uri = URI.create(query == null ? request.getRequestURL().toString() : request.getRequestURL() + "?" + query);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        HttpExchangesSettings httpExchanges = settings.get();
+        Principal principal = request.getUserPrincipal();
+        return new HttpExchange(
+                Instant.now().minusNanos(elapsedNanos),
+                new HttpExchange.Request(uri, null, request.getMethod(), requestHeaders(request, httpExchanges.getRequestHeaders())),
+                new HttpExchange.Response(status, responseHeaders(response, httpExchanges.getResponseHeaders())),
+                principal != null ? new HttpExchange.Principal(principal.getName()) : null,
+                null,
+                Duration.ofNanos(elapsedNanos));
+    }
+
+    private static Map<String, List<String>> requestHeaders(HttpServletRequest request, List<String> names) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : names) {
+            List<String> values = Collections.list(request.getHeaders(name));
+            if (!values.isEmpty()) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+
+    private static Map<String, List<String>> responseHeaders(HttpServletResponse response, List<String> names) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : names) {
+            Collection<String> values = response.getHeaders(name);
+            if (!values.isEmpty()) {
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        return headers;
+    }
+
+    // Modèle de route résolu par Spring MVC ; absent pour les 404 et les requêtes hors DispatcherServlet
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_URI;
+    }
+
+    private class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, start, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Format de l'en-tête X-User-Identity : base64url(payload) + "." + base64url(HMAC-SHA256(payload)).
+ * La clé (base64) est relue à chaque appel, une rotation par /busrefresh est donc prise en compte ;
+ * le Mac initialisé sert de prototype et est cloné, Mac n'étant pas thread-safe.
+ */
+public final class IdentityHeaderCodec {
+
+    public static final String IDENTITY_HEADER = "X-User-Identity";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Supplier<String> secret;
+    private final AtomicReference<SigningKey> signingKey = new AtomicReference<>();
+
+    /**
+     * @param secret clé HMAC partagée, encodée en base64
+     */
+    public IdentityHeaderCodec(Supplier<String> secret) {
+        this.secret = secret;
+    }
+
+    public boolean isConfigured() {
+        String current = secret.get();
+        return current != null && !current.isBlank();
+    }
+
+    public String encode(byte[] payload) {
+        String current = secret.get();
+        if (current == null || current.isBlank()) {
+            throw new IllegalStateException("application.identity.secret is not configured");
+        }
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(mac(current).doFinal(payload));
+    }
+
+    /**
+     * @return le payload si la signature est valide ; vide si l'en-tête est absent, malformé ou mal signé
+     */
+    public Optional<byte[]> decode(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return Optional.empty();
+        }
+        // Sans clé, aucune identité n'est reconnue
+        String current = secret.get();
+        if (current == null || current.isBlank()) {
+            return Optional.empty();
+        }
+        int separator = headerValue.indexOf('.');
+        if (separator <= 0 || separator == headerValue.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(headerValue.substring(0, separator));
+            byte[] signature = decoder.decode(headerValue.substring(separator + 1));
+            // Comparaison en temps constant
+            return MessageDigest.isEqual(signature, mac(current).doFinal(payload)) ? Optional.of(payload) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Mac mac(String current) {
+        SigningKey key = signingKey.get();
+        if (key == null || !key.secret().equals(current)) {
+            key = new SigningKey(current, newMac(current));
+            signingKey.set(key);
+        }
+        try {
+            return (Mac) key.prototype().clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(current);
+        }
+    }
+
+    private static Mac newMac(String secret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid application.identity.secret", e);
+        }
+    }
+
+    private record SigningKey(String secret, Mac prototype) {
+    }
+}
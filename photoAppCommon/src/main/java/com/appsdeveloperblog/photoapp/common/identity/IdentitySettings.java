@@ -0,0 +1,18 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+
+// Réglages de X-User-Identity, liés sous application.identity par chaque service (@Valid)
+@Data
+public class IdentitySettings {
+    private boolean enabled = false;
+    // Sans secret, aucune identité n'est signée ni reconnue : les endpoints réservés au rôle SERVICE répondent 403
+    private String secret;
+
+    // Démarrage refusé si l'identité est activée sans secret
+    @AssertTrue(message = "application.identity.secret is required when application.identity.enabled=true")
+    public boolean isSecretPresentWhenEnabled() {
+        return !enabled || (secret != null && !secret.isBlank());
+    }
+}
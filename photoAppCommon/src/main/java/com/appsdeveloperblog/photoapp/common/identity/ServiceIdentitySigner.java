@@ -0,0 +1,51 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Signe une identité de service (rôle SERVICE) au format X-User-Identity, avec le secret partagé.
+ * Utilisé pour les appels techniques entre services, que l'appelé réserve au rôle SERVICE.
+ * Sans secret configuré, aucune identité n'est signée : l'appel part sans en-tête et l'appelé répond 403.
+ */
+public class ServiceIdentitySigner {
+
+    public static final String SERVICE_ROLE = "SERVICE";
+    private static final long VALIDITY_SECONDS = 60;
+
+    private final IdentityHeaderCodec codec;
+    private final ObjectMapper objectMapper;
+    private final String serviceName;
+
+    public ServiceIdentitySigner(IdentityHeaderCodec codec, ObjectMapper objectMapper, String serviceName) {
+        this.codec = codec;
+        this.objectMapper = objectMapper;
+        this.serviceName = serviceName;
+    }
+
+    public boolean isAvailable() {
+        return codec.isConfigured();
+    }
+
+    public Optional<String> sign() {
+        if (!codec.isConfigured()) {
+            return Optional.empty();
+        }
+        Map<String, Object> identity = new LinkedHashMap<>();
+        identity.put("uid", 0L);
+        identity.put("sub", serviceName);
+        identity.put("roles", List.of(SERVICE_ROLE));
+        identity.put("exp", Instant.now().getEpochSecond() + VALIDITY_SECONDS);
+        try {
+            return Optional.of(codec.encode(objectMapper.writeValueAsBytes(identity)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize service identity", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Identité vérifiée par la gateway (ou identité de service) et transmise dans l'en-tête signé X-User-Identity.
+ */
+public record TrustedIdentity(
+        @JsonProperty("uid") Long userId,
+        @JsonProperty("sub") String email,
+        @JsonProperty("roles") List<String> roles,
+        @JsonProperty("exp") long expiresAt
+) {
+}
@@ -0,0 +1,70 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Vérifie l'en-tête X-User-Identity signé (HMAC-SHA256) par la gateway ou par un service,
+ * au format de {@link IdentityHeaderCodec}. Chaque service fournit ses réglages (application.identity) :
+ * enabled ne concerne que la confiance faite aux identités d'utilisateur relayées par la gateway,
+ * les identités de service sont vérifiées dès qu'un secret est configuré.
+ */
+@Slf4j
+public class TrustedIdentityVerifier {
+
+    public static final String IDENTITY_HEADER = IdentityHeaderCodec.IDENTITY_HEADER;
+
+    private final Supplier<IdentitySettings> settings;
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final ObjectReader identityReader;
+
+    public TrustedIdentityVerifier(Supplier<IdentitySettings> settings, IdentityHeaderCodec identityHeaderCodec,
+                                   ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.identityReader = objectMapper.readerFor(TrustedIdentity.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public boolean isEnabled() {
+        return settings.get().isEnabled();
+    }
+
+    /**
+     * @return vrai si l'en-tête porte une identité valide avec le rôle SERVICE
+     */
+    public boolean isService(String headerValue) {
+        return verify(headerValue)
+                .map(identity -> identity.roles() != null && identity.roles().contains(ServiceIdentitySigner.SERVICE_ROLE))
+                .orElse(false);
+    }
+
+    public Optional<TrustedIdentity> verify(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<byte[]> payload = identityHeaderCodec.decode(headerValue);
+        if (payload.isEmpty()) {
+            log.warn("Invalid {} header", IDENTITY_HEADER);
+            return Optional.empty();
+        }
+        try {
+            TrustedIdentity identity = identityReader.readValue(payload.get());
+            if (identity.userId() == null || identity.email() == null
+                    || identity.expiresAt() <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(identity);
+        } catch (IOException e) {
+            log.warn("Malformed {} header", IDENTITY_HEADER);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.appsdeveloperblog.photoapp.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sémaphore devant le pool de connexions, actif en mode threads virtuels : des milliers de requêtes
+ * simultanées ne doivent pas toutes attendre dans le pool Hikari (timeout de 30s, file non équitable).
+ * Au-delà de maxConcurrent connexions empruntées, l'appelant attend au plus acquireTimeout dans une file FIFO,
+ * puis reçoit une SQLTransientConnectionException. Le permis est rendu à la fermeture de la connexion.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+
+    // Renseignés par bindTo : le DataSource est créé avant le registre de métriques
+    private volatile Timer acquireTimer;
+    private volatile Counter rejectedCounter;
+
+    public ConcurrencyLimitedDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return new PermitReleasingConnection(super.getConnection(), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return new PermitReleasingConnection(super.getConnection(username, password), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompu en attente d'une connexion", e);
+        }
+        Timer timer = acquireTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            Counter rejected = rejectedCounter;
+            if (rejected != null) {
+                rejected.increment();
+            }
+            throw new SQLTransientConnectionException(
+                    "Aucune connexion disponible après " + Duration.ofNanos(acquireTimeoutNanos).toMillis()
+                            + " ms (" + maxConcurrent + " en cours)");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.concurrency.active", this, dataSource -> dataSource.maxConcurrent - dataSource.permits.availablePermits())
+                .description("Connexions empruntées à travers le sémaphore")
+                .register(registry);
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("Appelants en attente d'un permis")
+                .register(registry);
+        Gauge.builder("db.concurrency.limit", this, dataSource -> dataSource.maxConcurrent)
+                .register(registry);
+        acquireTimer = Timer.builder("db.concurrency.acquire")
+                .description("Attente d'un permis avant l'emprunt d'une connexion")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        rejectedCounter = Counter.builder("db.concurrency.rejected")
+                .description("Emprunts refusés après db-acquire-timeout")
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Groupe de couverture (hedging) d'une tentative, lu par {@link PeakEwmaLoadBalancer} au choix de l'instance.
+ * Il reste dans le contexte de la requête load balancer et n'est jamais transmis à l'amont :
+ * - gateway : attribut {@link #ATTRIBUTE} des RequestData construites pour le choix ;
+ * - Feign : FeignBlockingLoadBalancerClient ne reprend que les en-têtes de la requête dans ce contexte, le groupe
+ *   est donc porté par le thread de l'appel ({@link #call}), sur lequel le client bloquant choisit l'instance.
+ */
+public final class HedgeGroup {
+
+    public static final String ATTRIBUTE = HedgeGroup.class.getName();
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private HedgeGroup() {
+    }
+
+    /**
+     * Exécute un appel Feign dans le groupe donné ; le groupe précédent du thread est rétabli ensuite.
+     */
+    public static <T> T call(String group, Supplier<T> call) {
+        String previous = CURRENT.get();
+        CURRENT.set(group);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    static String of(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(ATTRIBUTE) instanceof String group) {
+            return group;
+        }
+        return CURRENT.get();
+    }
+}
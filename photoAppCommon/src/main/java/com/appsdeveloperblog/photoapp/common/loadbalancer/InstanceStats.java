@@ -0,0 +1,134 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Charge observée d'une instance : latence EWMA « à pic » et requêtes en cours, sans verrou.
+ * Une réponse plus lente que la moyenne la remplace aussitôt (le pic) ; une réponse plus rapide n'y contribue
+ * qu'avec un poids qui croît avec le temps écoulé depuis la mesure précédente (constante decayTime).
+ * Sans nouvelle mesure, la moyenne décroît : une instance écartée est retentée une fois son pic oublié.
+ */
+final class InstanceStats {
+
+    // Requêtes en cours comptées par tranche de leur heure de début. Une requête jamais signalée terminée
+    // (annulée côté client) sort du compte avec sa tranche, après SLOTS × SLOT_NANOS, sans effacer les autres
+    private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(4);
+    private static final int SLOTS = 16;
+
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final AtomicReferenceArray<InFlightSlot> inFlight = new AtomicReferenceArray<>(SLOTS);
+    // Moyenne et date de la dernière mesure changent ensemble : remplacées d'un bloc par CAS
+    private final AtomicReference<Ewma> ewma;
+    private volatile long penalizedUntil;
+
+    InstanceStats(long decayNanos, long failurePenaltyNanos) {
+        this.decayNanos = Math.max(1, decayNanos);
+        this.failurePenaltyNanos = failurePenaltyNanos;
+        this.ewma = new AtomicReference<>(new Ewma(0, System.nanoTime()));
+        this.penalizedUntil = System.nanoTime();
+    }
+
+    /**
+     * @param startNanos heure de début de l'appel, à repasser à complete ou abandon
+     */
+    void start(long startNanos) {
+        long epoch = Math.floorDiv(startNanos, SLOT_NANOS);
+        int index = (int) Math.floorMod(epoch, SLOTS);
+        while (true) {
+            InFlightSlot slot = inFlight.get(index);
+            if (slot != null && slot.epoch() == epoch) {
+                slot.count().incrementAndGet();
+                return;
+            }
+            // Tranche vide ou expirée : ses requêtes restantes sont oubliées
+            if (inFlight.compareAndSet(index, slot, new InFlightSlot(epoch, new AtomicInteger(1)))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param startNanos   heure passée à start, 0 si l'appel n'a pas été compté
+     * @param latencyNanos durée de l'appel, négative si inconnue
+     * @param failed       erreur d'appel ou réponse 5xx : l'instance est écartée pendant failurePenalty
+     */
+    void complete(long startNanos, long latencyNanos, boolean failed, long now) {
+        finish(startNanos);
+        if (failed) {
+            penalizedUntil = now + failurePenaltyNanos;
+        }
+        if (latencyNanos < 0) {
+            return;
+        }
+        ewma.updateAndGet(current -> {
+            double decayed = current.decayed(now, decayNanos);
+            if (latencyNanos > decayed) {
+                return new Ewma(latencyNanos, now);
+            }
+            double weight = Math.exp(-(now - current.lastUpdate()) / decayNanos);
+            return new Ewma(decayed * weight + latencyNanos * (1 - weight), now);
+        });
+    }
+
+    /**
+     * Appel abandonné (tentative couverte perdante, annulée) : sa durée n'est qu'une borne basse, elle ne
+     * compte que si elle dépasse déjà la moyenne. Sans cela, une instance lente dont les appels sont toujours
+     * devancés par une seconde tentative ne verrait jamais sa latence augmenter.
+     */
+    void abandon(long startNanos, long elapsedNanos, long now) {
+        finish(startNanos);
+        ewma.updateAndGet(current -> elapsedNanos > current.decayed(now, decayNanos)
+                ? new Ewma(elapsedNanos, now)
+                : current);
+    }
+
+    boolean isPenalized(long now) {
+        return now - penalizedUntil < 0;
+    }
+
+    /**
+     * Coût estimé d'un nouvel appel : latence attendue multipliée par la file d'attente de l'instance.
+     * Une instance sans mesure coûte 1 ms par requête en cours, ce qui l'empêche de tout absorber d'un coup.
+     */
+    double cost(long now) {
+        return Math.max(ewma.get().decayed(now, decayNanos), TimeUnit.MILLISECONDS.toNanos(1)) * (outstanding(now) + 1);
+    }
+
+    int outstanding(long now) {
+        long current = Math.floorDiv(now, SLOT_NANOS);
+        int total = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            InFlightSlot slot = inFlight.get(i);
+            if (slot != null && current - slot.epoch() < SLOTS) {
+                total += slot.count().get();
+            }
+        }
+        return total;
+    }
+
+    // 0 : heure de début inconnue, l'appel n'a pas été compté. Tranche déjà expirée : oublié avec elle
+    private void finish(long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        long epoch = Math.floorDiv(startNanos, SLOT_NANOS);
+        InFlightSlot slot = inFlight.get((int) Math.floorMod(epoch, SLOTS));
+        if (slot != null && slot.epoch() == epoch) {
+            slot.count().updateAndGet(count -> count > 0 ? count - 1 : 0);
+        }
+    }
+
+    private record InFlightSlot(long epoch, AtomicInteger count) {
+    }
+
+    private record Ewma(double nanos, long lastUpdate) {
+
+        double decayed(long now, double decayNanos) {
+            return nanos * Math.exp(-(now - lastUpdate) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration par défaut des clients load-balancer (un contexte par service), partagée par la gateway et
+ * les services via {@code @LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)}.
+ * Hors des packages scannés par les services : elle n'est chargée que dans les contextes des clients,
+ * jamais dans le contexte principal (elle y créerait un load-balancer sans service).
+ * application.load-balancer.enabled=false revient au round-robin de Spring Cloud LoadBalancer.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(LoadBalancerSettings.class)
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "application.load-balancer.enabled", havingValue = "true", matchIfMissing = true)
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+                                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                                     LoadBalancerSettings loadBalancer) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, loadBalancer.getDecayTime(), loadBalancer.getFailurePenalty());
+    }
+}
@@ -0,0 +1,15 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Réglages du load-balancer Peak EWMA, liés sous application.load-balancer dans le contexte de chaque client
+@Data
+@ConfigurationProperties(prefix = "application.load-balancer")
+public class LoadBalancerSettings {
+    private boolean enabled = true;
+    private Duration decayTime = Duration.ofSeconds(10);
+    private Duration failurePenalty = Duration.ofSeconds(5);
+}
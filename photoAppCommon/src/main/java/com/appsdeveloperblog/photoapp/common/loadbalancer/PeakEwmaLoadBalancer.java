@@ -0,0 +1,183 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Choix de l'instance par « power of two choices » : deux instances tirées au hasard, la moins chargée
+ * l'emporte (latence EWMA × requêtes en cours). Une instance qui vient de répondre en erreur ou en 5xx
+ * perd contre toute instance saine pendant failurePenalty.
+ * Les tentatives d'une même requête couverte (hedging) partagent un {@link HedgeGroup} : la seconde évite
+ * l'instance choisie pour la première dès qu'une autre est disponible.
+ * Le balancer est aussi un LoadBalancerLifecycle : la gateway (routes lb://) comme les clients Feign
+ * (FeignBlockingLoadBalancerClient) lui rapportent le début et la fin de chaque appel. Un appel dont la fin
+ * n'est jamais rapportée (annulation côté client) sort des requêtes en cours au bout d'une minute environ.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, InstanceStats> statsByInstance = new ConcurrentHashMap<>();
+    // Groupe de couverture -> instance de la première tentative
+    private final Cache<String, String> hedgeGroups = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .maximumSize(10_000)
+            .build();
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                String serviceId, Duration decayTime, Duration failurePenalty) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        // Lu sur le thread appelant : la liste des instances peut être publiée sur un autre
+        String hedgeGroup = HedgeGroup.of(request);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, hedgeGroup);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, String hedgeGroup) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        forgetDepartedInstances(instances);
+        if (hedgeGroup != null) {
+            return new DefaultResponse(chooseForHedgeGroup(instances, hedgeGroup));
+        }
+        return new DefaultResponse(chooseLessLoaded(instances));
+    }
+
+    private ServiceInstance chooseForHedgeGroup(List<ServiceInstance> instances, String hedgeGroup) {
+        String avoided = hedgeGroups.getIfPresent(hedgeGroup);
+        List<ServiceInstance> candidates = avoided == null ? instances
+                : instances.stream().filter(instance -> !key(instance).equals(avoided)).toList();
+        ServiceInstance chosen = candidates.isEmpty() ? instances.get(0)
+                : candidates.size() == 1 ? candidates.get(0) : chooseLessLoaded(candidates);
+        hedgeGroups.asMap().putIfAbsent(hedgeGroup, key(chosen));
+        return chosen;
+    }
+
+    private ServiceInstance chooseLessLoaded(List<ServiceInstance> instances) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        InstanceStats statsA = stats(a);
+        InstanceStats statsB = stats(b);
+
+        long now = System.nanoTime();
+        boolean penalizedA = statsA.isPenalized(now);
+        if (penalizedA != statsB.isPenalized(now)) {
+            return penalizedA ? b : a;
+        }
+        return statsA.cost(now) <= statsB.cost(now) ? a : b;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        // Sans heure de début, la fin de l'appel ne peut pas être rapprochée de son début : il n'est pas compté
+        if (request.getContext() instanceof TimedRequestContext context && lbResponse.hasServer()) {
+            long startTime = System.nanoTime();
+            context.setRequestStartTime(startTime);
+            stats(lbResponse.getServer()).start(startTime);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long startTime = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                ? context.getRequestStartTime() : 0;
+        long elapsed = startTime != 0 ? now - startTime : -1;
+        // Tentative abandonnée (couverture perdante annulée, thread interrompu) : pas de pénalité,
+        // la durée écoulée ne compte que comme borne basse
+        if (completionContext.status() == CompletionContext.Status.DISCARD || Thread.currentThread().isInterrupted()) {
+            stats(lbResponse.getServer()).abandon(startTime, elapsed, now);
+            return;
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData responseData
+                && responseData.getHttpStatus() != null && responseData.getHttpStatus().is5xxServerError();
+        stats(lbResponse.getServer()).complete(startTime, elapsed, failed, now);
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return statsByInstance.computeIfAbsent(key(instance), k -> new InstanceStats(decayNanos, failurePenaltyNanos));
+    }
+
+    // Instances retirées du registre : leurs statistiques ne servent plus
+    private void forgetDepartedInstances(List<ServiceInstance> instances) {
+        if (statsByInstance.size() <= instances.size() * 2) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        instances.forEach(instance -> current.add(key(instance)));
+        statsByInstance.keySet().retainAll(current);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,101 @@
+package com.appsdeveloperblog.photoapp.common.logging;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logger Feign échantillonné : seule une fraction des appels est tracée, et les corps sont tronqués.
+ * Un appel non échantillonné ne coûte rien (pas de lecture ni de copie du corps de réponse).
+ * Le niveau Feign (BASIC, FULL) décide si les corps sont tracés.
+ */
+public class SampledFeignLogger extends Logger {
+
+    // Feign appelle logRequest puis logAndRebufferResponse sur le même thread
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final org.slf4j.Logger logger;
+    private final double sampleRate;
+    private final int maxBodyBytes;
+
+    public SampledFeignLogger(Class<?> type, double sampleRate, int maxBodyBytes) {
+        this.logger = LoggerFactory.getLogger(type);
+        this.sampleRate = sampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        boolean sampled = logger.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        SAMPLED.set(sampled);
+        if (!sampled) {
+            return;
+        }
+
+        byte[] body = request.body();
+        log(configKey, "---> %s %s (%s-byte body)", request.httpMethod().name(), request.url(), body == null ? 0 : body.length);
+        if (logLevel == Level.FULL && body != null) {
+            log(configKey, "%s", truncate(body, request.charset() != null ? request.charset() : StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime) throws IOException {
+        boolean sampled = Boolean.TRUE.equals(SAMPLED.get());
+        SAMPLED.remove();
+        if (!sampled) {
+            return response;
+        }
+
+        log(configKey, "<--- %s %s (%sms)", response.status(), response.reason() != null ? response.reason() : "", elapsedTime);
+        if (logLevel != Level.FULL || response.body() == null) {
+            return response;
+        }
+        byte[] body = Util.toByteArray(response.body().asInputStream());
+        log(configKey, "%s", truncate(body, StandardCharsets.UTF_8));
+        return response.toBuilder().body(body).build();
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        SAMPLED.remove();
+        if (logger.isWarnEnabled()) {
+            logger.warn(String.format("%s<--- ERROR %s: %s (%sms)", methodTag(configKey), ioe.getClass().getSimpleName(),
+                    ioe.getMessage(), elapsedTime));
+        }
+        return ioe;
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format(methodTag(configKey) + format, args));
+        }
+    }
+
+    // Coupe sur une frontière de caractère : une séquence multi-octets entamée par la limite n'est pas décodée
+    String truncate(byte[] body, Charset charset) {
+        if (body.length <= maxBodyBytes) {
+            return new String(body, charset);
+        }
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer in = ByteBuffer.wrap(body, 0, maxBodyBytes);
+        CharBuffer out = CharBuffer.allocate((int) Math.ceil(maxBodyBytes * (double) decoder.maxCharsPerByte()));
+        // endOfInput=false : les octets d'un caractère incomplet restent dans le tampon d'entrée
+        decoder.decode(in, out, false);
+        return out.flip() + "... (" + (body.length - in.position()) + " more bytes)";
+    }
+}
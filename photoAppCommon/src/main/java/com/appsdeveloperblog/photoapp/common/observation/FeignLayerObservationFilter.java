@@ -0,0 +1,20 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+import feign.micrometer.FeignContext;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+
+// Ajoute layer=feign aux observations des clients Feign (feign-micrometer) : même clé que port.calls et mapper.calls
+public class FeignLayerObservationFilter implements ObservationFilter {
+
+    private static final KeyValue FEIGN_LAYER = KeyValue.of("layer", PortLayer.FEIGN.tag());
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        if (context instanceof FeignContext) {
+            context.addLowCardinalityKeyValue(FEIGN_LAYER);
+        }
+        return context;
+    }
+}
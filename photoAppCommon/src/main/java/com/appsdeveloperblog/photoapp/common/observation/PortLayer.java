@@ -0,0 +1,19 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+// Couche instrumentée : valeur du tag "layer", commun aux ports, mappers et clients Feign
+public enum PortLayer {
+    PORT_IN("port.in"),    // Cas d'usage
+    PORT_OUT("port.out"),  // Adaptateurs sortants : base de données, outbox, transport d'événements
+    MAPPER("mapper"),      // Mappers MapStruct, mesurés sans span (appels trop fréquents)
+    FEIGN("feign");        // Appels HTTP sortants des clients Feign (http.client.requests)
+
+    private final String tag;
+
+    PortLayer(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
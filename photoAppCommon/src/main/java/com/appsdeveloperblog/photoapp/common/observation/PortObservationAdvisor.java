@@ -0,0 +1,64 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.mapstruct.Mapper;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Instrumente toute méthode déclarée par une interface de {portPackage}.in / {portPackage}.out,
+ * ainsi que les mappers MapStruct. La résolution du port se fait une fois, au moment du proxy :
+ * l'intercepteur ne fait plus aucune réflexion à l'appel. Déclaré en @Bean par chaque service.
+ */
+public class PortObservationAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private final String portInPackage;
+    private final String portOutPackage;
+
+    /**
+     * @param portPackage package parent des ports du service, ex. com.appsdeveloperblog.photoapp.api.users.application.port
+     */
+    public PortObservationAdvisor(String portPackage, ObjectProvider<ObservationRegistry> observationRegistry,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.portInPackage = portPackage + ".in";
+        this.portOutPackage = portPackage + ".out";
+        setAdvice(new PortObservationInterceptor(this, observationRegistry, meterRegistry));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return layerOf(method, targetClass) != null;
+    }
+
+    PortLayer layerOf(Method method, Class<?> targetClass) {
+        Class<?> port = portOf(method, targetClass);
+        if (port == null) {
+            return null;
+        }
+        String packageName = port.getPackageName();
+        if (packageName.equals(portInPackage)) {
+            return PortLayer.PORT_IN;
+        }
+        if (packageName.equals(portOutPackage)) {
+            return PortLayer.PORT_OUT;
+        }
+        return port.isAnnotationPresent(Mapper.class) ? PortLayer.MAPPER : null;
+    }
+
+    // Interface port (ou mapper) qui expose la méthode, héritage d'interfaces compris
+    Class<?> portOf(Method method, Class<?> targetClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            boolean instrumented = candidate.getPackageName().equals(portInPackage)
+                    || candidate.getPackageName().equals(portOutPackage)
+                    || candidate.isAnnotationPresent(Mapper.class);
+            if (instrumented && ClassUtils.hasMethod(candidate, method.getName(), method.getParameterTypes())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
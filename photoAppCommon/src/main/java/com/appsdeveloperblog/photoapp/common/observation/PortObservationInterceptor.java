@@ -0,0 +1,178 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observation "port.calls" (timer + span) par appel de port, timer "mapper.calls" par appel de mapper.
+ * Tags : layer, port, method, adapter, outcome, exception. Les tags fixes sont calculés au premier appel
+ * de chaque couple (méthode, adaptateur) puis réutilisés.
+ */
+class PortObservationInterceptor implements MethodInterceptor {
+
+    static final String PORT_OBSERVATION = "port.calls";
+    static final String MAPPER_TIMER = "mapper.calls";
+
+    private final PortObservationAdvisor advisor;
+    private final ObjectProvider<ObservationRegistry> observationRegistryProvider;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<CallSite, PortMethod> portMethods = new ConcurrentHashMap<>();
+
+    // Résolus au premier appel : l'advisor est créé avant les registres
+    private volatile ObservationRegistry observationRegistry;
+    private volatile MeterRegistry meterRegistry;
+
+    PortObservationInterceptor(PortObservationAdvisor advisor, ObjectProvider<ObservationRegistry> observationRegistryProvider,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.advisor = advisor;
+        this.observationRegistryProvider = observationRegistryProvider;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.proceed();
+        }
+        PortMethod portMethod = portMethods.computeIfAbsent(new CallSite(invocation.getMethod(), target.getClass()), this::describe);
+        if (portMethod.layer() == PortLayer.MAPPER) {
+            return timed(invocation, portMethod);
+        }
+        return observed(invocation, portMethod);
+    }
+
+    private Object observed(MethodInvocation invocation, PortMethod portMethod) throws Throwable {
+        Observation observation = Observation.createNotStarted(PORT_OBSERVATION, observationRegistry())
+                .contextualName(portMethod.contextualName())
+                .lowCardinalityKeyValues(portMethod.keyValues())
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = invocation.proceed();
+            observation.lowCardinalityKeyValue("outcome", "SUCCESS")
+                    .lowCardinalityKeyValue("exception", "none");
+            return result;
+        } catch (Throwable ex) {
+            observation.lowCardinalityKeyValue("outcome", "ERROR")
+                    .lowCardinalityKeyValue("exception", ex.getClass().getSimpleName())
+                    .error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private Object timed(MethodInvocation invocation, PortMethod portMethod) throws Throwable {
+        MeterRegistry registry = meterRegistry();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = invocation.proceed();
+            sample.stop(portMethod.successTimer(registry));
+            return result;
+        } catch (Throwable ex) {
+            sample.stop(mapperTimer(registry, portMethod.tags(), "ERROR", ex.getClass().getSimpleName()));
+            throw ex;
+        }
+    }
+
+    private static Timer mapperTimer(MeterRegistry registry, Tags tags, String outcome, String exception) {
+        return Timer.builder(MAPPER_TIMER)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private PortMethod describe(CallSite callSite) {
+        Class<?> targetClass = AopUtils.getTargetClass(callSite.targetClass());
+        Method method = callSite.method();
+        Class<?> port = advisor.portOf(method, targetClass);
+        PortLayer layer = advisor.layerOf(method, targetClass);
+        String portName = port != null ? port.getSimpleName() : method.getDeclaringClass().getSimpleName();
+        KeyValues keyValues = KeyValues.of(
+                "layer", layer != null ? layer.tag() : PortLayer.PORT_IN.tag(),
+                "port", portName,
+                "method", method.getName(),
+                "adapter", targetClass.getSimpleName());
+        return new PortMethod(layer != null ? layer : PortLayer.PORT_IN, portName + "#" + method.getName(), keyValues);
+    }
+
+    private ObservationRegistry observationRegistry() {
+        ObservationRegistry registry = observationRegistry;
+        if (registry == null) {
+            registry = observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+            observationRegistry = registry;
+        }
+        return registry;
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getObject();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private record CallSite(Method method, Class<?> targetClass) {
+    }
+
+    private static final class PortMethod {
+
+        private final PortLayer layer;
+        private final String contextualName;
+        private final KeyValues keyValues;
+        private final Tags tags;
+        private volatile Timer successTimer;
+
+        private PortMethod(PortLayer layer, String contextualName, KeyValues keyValues) {
+            this.layer = layer;
+            this.contextualName = contextualName;
+            this.keyValues = keyValues;
+            this.tags = Tags.of(keyValues.stream()
+                    .map(keyValue -> Tag.of(keyValue.getKey(), keyValue.getValue()))
+                    .toList());
+        }
+
+        PortLayer layer() {
+            return layer;
+        }
+
+        String contextualName() {
+            return contextualName;
+        }
+
+        KeyValues keyValues() {
+            return keyValues;
+        }
+
+        Tags tags() {
+            return tags;
+        }
+
+        // Le cas nominal ne repasse pas par la recherche du timer dans le registre
+        Timer successTimer(MeterRegistry registry) {
+            Timer timer = successTimer;
+            if (timer == null) {
+                timer = mapperTimer(registry, tags, "SUCCESS", "none");
+                successTimer = timer;
+            }
+            return timer;
+        }
+    }
+}
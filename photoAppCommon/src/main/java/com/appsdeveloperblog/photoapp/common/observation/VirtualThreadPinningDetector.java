@@ -0,0 +1,118 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Écoute en continu l'événement JFR jdk.VirtualThreadPinned (thread virtuel bloqué sur son carrier,
+ * typiquement dans un bloc synchronized) au-delà d'un seuil. Timer "virtual.threads.pinned" tagué par la
+ * première frame applicative de la pile ; la pile est journalisée à la première occurrence de chaque frame.
+ */
+@Slf4j
+public class VirtualThreadPinningDetector implements SmartLifecycle {
+
+    static final String PINNED_TIMER = "virtual.threads.pinned";
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.appsdeveloperblog.";
+    // Borne la cardinalité du tag frame
+    private static final int MAX_FRAMES = 50;
+    private static final String OTHER_FRAME = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Timer> timersByFrame = new ConcurrentHashMap<>();
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningDetector(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recordingStream = stream;
+        log.info("Détection du pinning des threads virtuels active (seuil {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recordingStream;
+        if (stream != null) {
+            stream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String frame = pinningFrame(frames);
+        Timer timer = timersByFrame.get(frame);
+        if (timer == null) {
+            if (timersByFrame.size() >= MAX_FRAMES) {
+                frame = OTHER_FRAME;
+            }
+            String tag = frame;
+            timer = timersByFrame.computeIfAbsent(tag, key -> {
+                log.warn("Thread virtuel épinglé {} ms dans {} :\n\t{}", event.getDuration().toMillis(), tag,
+                        frames.stream().limit(10).map(VirtualThreadPinningDetector::describe).collect(Collectors.joining("\n\t")));
+                return Timer.builder(PINNED_TIMER)
+                        .description("Durée pendant laquelle un thread virtuel a bloqué son carrier")
+                        .tag("frame", tag)
+                        .register(meterRegistry);
+            });
+        }
+        timer.record(event.getDuration());
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    // Première frame applicative, à défaut la première frame hors JDK
+    private static String pinningFrame(List<RecordedFrame> frames) {
+        RecordedFrame fallback = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return shortName(frame);
+            }
+            if (fallback == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                fallback = frame;
+            }
+        }
+        return fallback != null ? shortName(fallback) : "unknown";
+    }
+
+    private static String shortName(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "#" + frame.getMethod().getName();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,92 @@
+package com.appsdeveloperblog.photoapp.common.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantile glissant des durées d'appel : histogramme à seaux logarithmiques (10 % de largeur), sur la fenêtre
+ * courante et la précédente. Sans verrou ; une mesure concurrente à une bascule de fenêtre peut être perdue.
+ * La valeur est recalculée au plus une fois par seconde. Sert de délai aux requêtes couvertes (hedging).
+ */
+public final class LatencyPercentile {
+
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    // 1 µs × 1,1^255 : plusieurs heures, bien au-delà de tout timeout
+    private static final int BUCKETS = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double quantile;
+    private final long windowNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime());
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private volatile long cachedNanos = -1;
+
+    public LatencyPercentile(double quantile, long windowNanos) {
+        this.quantile = quantile;
+        this.windowNanos = Math.max(1, windowNanos);
+    }
+
+    public void record(long nanos) {
+        rotate(System.nanoTime());
+        current.incrementAndGet(bucket(nanos));
+    }
+
+    /**
+     * @return le quantile en nanosecondes (borne haute de son seau), -1 tant que moins de 20 mesures
+     */
+    public long valueNanos() {
+        long now = System.nanoTime();
+        long refresh = nextRefresh.get();
+        if (now - refresh >= 0 && nextRefresh.compareAndSet(refresh, now + REFRESH_NANOS)) {
+            rotate(now);
+            cachedNanos = compute();
+        }
+        return cachedNanos;
+    }
+
+    private void rotate(long now) {
+        long start = windowStart.get();
+        long elapsed = now - start;
+        if (elapsed >= windowNanos && windowStart.compareAndSet(start, now)) {
+            // Fenêtre précédente inactive : ses mesures sont trop anciennes pour compter
+            previous = elapsed >= 2 * windowNanos ? new AtomicLongArray(BUCKETS) : current;
+            current = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    private long compute() {
+        AtomicLongArray currentCounts = current;
+        AtomicLongArray previousCounts = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = currentCounts.get(i) + previousCounts.get(i);
+            total += counts[i];
+        }
+        if (total < MIN_SAMPLES) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (long) (TimeUnit.MICROSECONDS.toNanos(1) * Math.pow(GROWTH, i + 1));
+            }
+        }
+        return (long) (TimeUnit.MICROSECONDS.toNanos(1) * Math.pow(GROWTH, BUCKETS));
+    }
+
+    private static int bucket(long nanos) {
+        double micros = nanos / 1_000.0;
+        if (micros < 1) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.log(micros) / LOG_GROWTH);
+    }
+}
@@ -0,0 +1,91 @@
+package com.appsdeveloperblog.photoapp.common.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Budget de retries d'une cible : sur la fenêtre glissante, retries <= ratio * requêtes + plancher par seconde.
+ * Chaque appel compte pour une requête, quelle que soit son issue ; chaque nouvelle tentative pour un retry.
+ * Fenêtre découpée en tranches d'une seconde, sans verrou : une tranche périmée est remise à zéro par CAS
+ * sur son horodatage. Une incrémentation concurrente à cette remise à zéro peut être perdue, le budget
+ * est donc approximatif, jamais bloquant.
+ * Sert aussi aux requêtes couvertes (hedging) : la seconde tentative y compte comme un retry.
+ */
+public class RetryBudget {
+
+    private final String target;
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray requests;
+    private final AtomicLongArray retries;
+
+    public RetryBudget(String target, int windowSeconds) {
+        this.target = target;
+        this.buckets = Math.max(1, windowSeconds);
+        this.epochs = new AtomicLongArray(buckets);
+        this.requests = new AtomicLongArray(buckets);
+        this.retries = new AtomicLongArray(buckets);
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void recordRequest() {
+        requests.incrementAndGet(bucket(currentSecond()));
+    }
+
+    public void recordRetry() {
+        retries.incrementAndGet(bucket(currentSecond()));
+    }
+
+    public boolean canRetry(double ratio, int minRetriesPerSecond) {
+        Snapshot snapshot = snapshot(ratio, minRetriesPerSecond);
+        return snapshot.retries() < snapshot.limit();
+    }
+
+    /**
+     * Débite un retry si le budget le permet.
+     */
+    public boolean tryRetry(double ratio, int minRetriesPerSecond) {
+        if (!canRetry(ratio, minRetriesPerSecond)) {
+            return false;
+        }
+        recordRetry();
+        return true;
+    }
+
+    public Snapshot snapshot(double ratio, int minRetriesPerSecond) {
+        long now = currentSecond();
+        long requestCount = 0;
+        long retryCount = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (now - epochs.get(i) < buckets) {
+                requestCount += requests.get(i);
+                retryCount += retries.get(i);
+            }
+        }
+        long limit = (long) (requestCount * ratio) + (long) minRetriesPerSecond * buckets;
+        return new Snapshot(requestCount, retryCount, limit);
+    }
+
+    private int bucket(long now) {
+        int index = (int) Math.floorMod(now, (long) buckets);
+        long epoch = epochs.get(index);
+        if (epoch != now && epochs.compareAndSet(index, epoch, now)) {
+            requests.set(index, 0);
+            retries.set(index, 0);
+        }
+        return index;
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    public record Snapshot(long requests, long retries, long limit) {
+
+        public double utilization() {
+            return limit == 0 ? 1.0 : (double) retries / limit;
+        }
+    }
+}
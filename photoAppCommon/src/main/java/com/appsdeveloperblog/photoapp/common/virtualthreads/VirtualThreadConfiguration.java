@@ -0,0 +1,69 @@
+package com.appsdeveloperblog.photoapp.common.virtualthreads;
+
+import com.appsdeveloperblog.photoapp.common.jdbc.ConcurrencyLimitedDataSource;
+import com.appsdeveloperblog.photoapp.common.observation.VirtualThreadPinningDetector;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Mode threads virtuels (spring.threads.virtual.enabled=true) : Tomcat, l'exécuteur @Async et le scheduler
+ * passent sur threads virtuels via Spring Boot ; les appels Feign s'exécutent sur le thread appelant.
+ * Ce mode retire la limite implicite des 200 threads Tomcat : le sémaphore devant le pool JDBC la remplace
+ * pour la base, le pool HC5 pour le service appelé. Importée par l'application de chaque service.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadsSettings.class)
+public class VirtualThreadConfiguration {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(ObjectProvider<VirtualThreadsSettings> settings) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                VirtualThreadsSettings virtualThreads = settings.getObject();
+                int maxConcurrent = virtualThreads.getDbMaxConcurrent() > 0
+                        ? virtualThreads.getDbMaxConcurrent()
+                        : poolSize(dataSource);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, virtualThreads.getDbAcquireTimeout());
+            }
+        };
+    }
+
+    // Par défaut, autant de permis que de connexions dans le pool : l'attente se fait dans la file équitable
+    private static int poolSize(DataSource dataSource) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        return hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> dataSource.ifAvailable(source -> {
+            if (source instanceof ConcurrencyLimitedDataSource limited) {
+                limited.bindTo(registry);
+            }
+        });
+    }
+
+    @Bean
+    public VirtualThreadPinningDetector virtualThreadPinningDetector(MeterRegistry meterRegistry,
+                                                                     VirtualThreadsSettings settings) {
+        return new VirtualThreadPinningDetector(meterRegistry, settings.getPinnedThreshold());
+    }
+}
@@ -0,0 +1,15 @@
+package com.appsdeveloperblog.photoapp.common.virtualthreads;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Réglages du mode threads virtuels, liés sous application.virtual-threads par chaque service
+@Data
+@ConfigurationProperties(prefix = "application.virtual-threads")
+public class VirtualThreadsSettings {
+    private int dbMaxConcurrent = 0;
+    private Duration dbAcquireTimeout = Duration.ofSeconds(2);
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,48 @@
+package com.appsdeveloperblog.photoapp.common.exchanges;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledHttpExchangeRepositoryTest {
+
+    private final HttpExchangesSettings settings = new HttpExchangesSettings();
+
+    @Test
+    void ringKeepsTheMostRecentExchangesFirst() {
+        settings.setCapacity(2);
+        SampledHttpExchangeRepository repository = new SampledHttpExchangeRepository(() -> settings, new SimpleMeterRegistry());
+
+        repository.add(exchange("/a"));
+        repository.add(exchange("/b"));
+        repository.add(exchange("/c"));
+
+        assertThat(repository.findAll()).extracting(exchange -> exchange.getRequest().getUri().getPath())
+                .containsExactly("/c", "/b");
+    }
+
+    @Test
+    void errorsAndSlowRequestsFollowTheirOwnRate() {
+        settings.setSampleRate(0);
+        SampledHttpExchangeRepository repository = new SampledHttpExchangeRepository(() -> settings, new SimpleMeterRegistry());
+
+        assertThat(repository.accepts(200, 0)).isFalse();
+        assertThat(repository.accepts(503, 0)).isTrue();
+        assertThat(repository.accepts(200, settings.getSlowThreshold().toNanos())).isTrue();
+    }
+
+    private static HttpExchange exchange(String path) {
+        return new HttpExchange(Instant.now(),
+                new HttpExchange.Request(URI.create("http://localhost" + path), null, "GET", Map.of()),
+                new HttpExchange.Response(200, Map.<String, List<String>>of()),
+                null, null, Duration.ZERO);
+    }
+}
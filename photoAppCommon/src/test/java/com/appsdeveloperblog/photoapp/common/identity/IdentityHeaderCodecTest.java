@@ -0,0 +1,72 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdentityHeaderCodecTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("test-identity-secret-0123456789ab".getBytes());
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("another-identity-secret-987654321".getBytes());
+
+    private final AtomicReference<String> secret = new AtomicReference<>(SECRET);
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec(secret::get);
+
+    @Test
+    void decodesWhatItEncodes() {
+        byte[] payload = "{\"uid\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(codec.decode(codec.encode(payload))).hasValueSatisfying(decoded -> assertThat(decoded).isEqualTo(payload));
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String header = codec.encode("{\"uid\":1}".getBytes(StandardCharsets.UTF_8));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"uid\":2}".getBytes(StandardCharsets.UTF_8))
+                + header.substring(header.indexOf('.'));
+
+        assertThat(codec.decode(forged)).isEmpty();
+    }
+
+    @Test
+    void rotatedSecretInvalidatesPreviousSignatures() {
+        String header = codec.encode("{\"uid\":1}".getBytes(StandardCharsets.UTF_8));
+
+        secret.set(OTHER_SECRET);
+
+        assertThat(codec.decode(header)).isEmpty();
+        assertThat(codec.decode(codec.encode("{\"uid\":1}".getBytes(StandardCharsets.UTF_8)))).isPresent();
+    }
+
+    @Test
+    void rejectsMalformedHeaders() {
+        assertThat(codec.decode(null)).isEmpty();
+        assertThat(codec.decode("no-separator")).isEmpty();
+        assertThat(codec.decode(".signature")).isEmpty();
+        assertThat(codec.decode("%%%.%%%")).isEmpty();
+    }
+
+    @Test
+    void missingSecretRecognisesNothing() {
+        String header = codec.encode("{\"uid\":1}".getBytes(StandardCharsets.UTF_8));
+
+        secret.set("");
+
+        assertThat(codec.isConfigured()).isFalse();
+        assertThat(codec.decode(header)).isEmpty();
+    }
+
+    @Test
+    void missingSecretFailsExplicitlyOnEncode() {
+        secret.set(null);
+
+        assertThatThrownBy(() -> codec.encode(new byte[]{1}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("application.identity.secret");
+    }
+}
@@ -0,0 +1,125 @@
+package com.appsdeveloperblog.photoapp.common.identity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrustedIdentityVerifierTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("test-identity-secret-0123456789ab".getBytes());
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("another-identity-secret-987654321".getBytes());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdentitySettings settings = new IdentitySettings();
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec(settings::getSecret);
+    private TrustedIdentityVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        settings.setSecret(SECRET);
+        verifier = new TrustedIdentityVerifier(() -> settings, codec, objectMapper);
+    }
+
+    @Test
+    void acceptsIdentitySignedWithSharedSecret() throws Exception {
+        TrustedIdentity identity = new TrustedIdentity(42L, "user@test.com", List.of("USER"), inOneMinute());
+
+        assertThat(verifier.verify(sign(identity, SECRET))).contains(identity);
+    }
+
+    @Test
+    void rejectsIdentitySignedWithAnotherSecret() throws Exception {
+        TrustedIdentity identity = new TrustedIdentity(42L, "user@test.com", List.of("USER"), inOneMinute());
+
+        assertThat(verifier.verify(sign(identity, OTHER_SECRET))).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedPayload() throws Exception {
+        String header = sign(new TrustedIdentity(42L, "user@test.com", List.of("USER"), inOneMinute()), SECRET);
+        String forgedPayload = encode(objectMapper.writeValueAsBytes(
+                new TrustedIdentity(1L, "admin@test.com", List.of("ADMIN"), inOneMinute())));
+
+        assertThat(verifier.verify(forgedPayload + header.substring(header.indexOf('.')))).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredIdentity() throws Exception {
+        TrustedIdentity identity = new TrustedIdentity(42L, "user@test.com", List.of("USER"),
+                Instant.now().getEpochSecond() - 1);
+
+        assertThat(verifier.verify(sign(identity, SECRET))).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedHeaders() {
+        assertThat(verifier.verify(null)).isEmpty();
+        assertThat(verifier.verify("")).isEmpty();
+        assertThat(verifier.verify("no-separator")).isEmpty();
+        assertThat(verifier.verify("payload.")).isEmpty();
+        assertThat(verifier.verify("%%%.%%%")).isEmpty();
+    }
+
+    @Test
+    void serviceRoleIsRecognised() throws Exception {
+        String service = sign(new TrustedIdentity(0L, "users-ws", List.of(ServiceIdentitySigner.SERVICE_ROLE), inOneMinute()), SECRET);
+        String user = sign(new TrustedIdentity(42L, "user@test.com", List.of("USER"), inOneMinute()), SECRET);
+
+        assertThat(verifier.isService(service)).isTrue();
+        assertThat(verifier.isService(user)).isFalse();
+        assertThat(verifier.isService(null)).isFalse();
+    }
+
+    @Test
+    void withoutSecretNothingIsTrustedNorSigned() throws Exception {
+        String header = sign(new TrustedIdentity(0L, "users-ws", List.of(ServiceIdentitySigner.SERVICE_ROLE), inOneMinute()), SECRET);
+        settings.setSecret("");
+
+        assertThat(verifier.verify(header)).isEmpty();
+        assertThat(verifier.isService(header)).isFalse();
+        assertThat(new ServiceIdentitySigner(codec, objectMapper, "users-ws").sign()).isEmpty();
+    }
+
+    @Test
+    void missingSecretIsAllowedWhileDisabled() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        settings.setSecret(null);
+
+        assertThat(validator.validate(settings)).isEmpty();
+    }
+
+    @Test
+    void missingSecretFailsValidationOnceEnabled() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        settings.setEnabled(true);
+        settings.setSecret(" ");
+
+        assertThat(validator.validate(settings))
+                .anyMatch(violation -> violation.getMessage().contains("application.identity.secret"));
+    }
+
+    private String sign(TrustedIdentity identity, String secret) throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(identity);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+        return encode(payload) + "." + encode(mac.doFinal(payload));
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static long inOneMinute() {
+        return Instant.now().getEpochSecond() + 60;
+    }
+}
@@ -0,0 +1,89 @@
+package com.appsdeveloperblog.photoapp.common.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection pooled = mock(Connection.class);
+
+    @Test
+    void permitIsReleasedOnceWhenTheConnectionIsClosedTwice() throws SQLException {
+        when(pool.getConnection()).thenReturn(pooled);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(10));
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        Connection next = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        next.close();
+        verify(pooled, times(3)).close();
+    }
+
+    @Test
+    void permitIsReleasedWhenCloseFails() throws SQLException {
+        when(pool.getConnection()).thenReturn(pooled);
+        doThrow(new SQLException("broken")).when(pooled).close();
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(10));
+
+        Connection connection = dataSource.getConnection();
+        assertThatThrownBy(connection::close).isInstanceOf(SQLException.class);
+
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void permitIsReleasedWhenThePoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(10));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+    }
+
+    @Test
+    void callsAreDelegatedToThePooledConnection() throws SQLException {
+        when(pool.getConnection()).thenReturn(pooled);
+        when(pooled.nativeSQL(anyString())).thenReturn("native");
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(10));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            assertThat(connection.nativeSQL("select 1")).isEqualTo("native");
+            assertThat(connection.unwrap(PermitReleasingConnection.class)).isSameAs(connection);
+        }
+        verify(pooled).setAutoCommit(false);
+    }
+
+    @Test
+    void rejectionsAreCounted() throws SQLException {
+        when(pool.getConnection()).thenReturn(pooled);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        assertThat(registry.get("db.concurrency.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("db.concurrency.active").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+    private static final long PENALTY = TimeUnit.SECONDS.toNanos(5);
+
+    private final InstanceStats stats = new InstanceStats(DECAY, PENALTY);
+    private final long now = System.nanoTime();
+
+    @Test
+    void slowResponseReplacesTheAverageAtOnce() {
+        stats.start(now);
+        stats.complete(now, TimeUnit.MILLISECONDS.toNanos(200), false, now);
+
+        assertThat(stats.cost(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void fastResponseOnlyPullsTheAverageDown() {
+        stats.start(now);
+        stats.complete(now, TimeUnit.MILLISECONDS.toNanos(200), false, now);
+        long later = now + TimeUnit.SECONDS.toNanos(1);
+        stats.start(later);
+        stats.complete(later, TimeUnit.MILLISECONDS.toNanos(10), false, later);
+
+        assertThat(stats.cost(later))
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(200))
+                .isGreaterThan(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void outstandingRequestsMultiplyTheCost() {
+        stats.start(now);
+        stats.start(now);
+
+        assertThat(stats.outstanding(now)).isEqualTo(2);
+        assertThat(stats.cost(now)).isEqualTo(3 * TimeUnit.MILLISECONDS.toNanos(1));
+
+        stats.complete(now, -1, false, now);
+        stats.abandon(now, -1, now);
+        assertThat(stats.outstanding(now)).isZero();
+    }
+
+    @Test
+    void neverCompletedRequestAgesOutWithoutClearingRecentOnes() {
+        stats.start(now);
+        long later = now + TimeUnit.SECONDS.toNanos(90);
+        stats.start(later);
+        stats.start(later);
+
+        // La requête de départ, jamais terminée, est oubliée ; les deux récentes restent comptées
+        assertThat(stats.outstanding(later)).isEqualTo(2);
+
+        stats.complete(now, TimeUnit.MILLISECONDS.toNanos(5), false, later);
+        assertThat(stats.outstanding(later)).isEqualTo(2);
+    }
+
+    @Test
+    void leakedRequestsStayBoundedOnABusyInstance() {
+        // Un appel sur deux n'est jamais terminé : seuls ceux de la dernière minute environ restent comptés,
+        // bien que l'instance réponde sans interruption
+        for (int second = 0; second < 120; second++) {
+            long t = now + TimeUnit.SECONDS.toNanos(second);
+            stats.start(t);
+            stats.start(t);
+            stats.complete(t, TimeUnit.MILLISECONDS.toNanos(5), false, t);
+        }
+        long end = now + TimeUnit.SECONDS.toNanos(119);
+
+        assertThat(stats.outstanding(end)).isLessThanOrEqualTo(64);
+        assertThat(stats.outstanding(end)).isGreaterThanOrEqualTo(56);
+    }
+
+    @Test
+    void uncountedCallDoesNotDecrement() {
+        stats.start(now);
+        stats.complete(0, TimeUnit.MILLISECONDS.toNanos(5), false, now);
+
+        assertThat(stats.outstanding(now)).isEqualTo(1);
+    }
+
+    @Test
+    void failureIsPenalizedForTheConfiguredTime() {
+        assertThat(stats.isPenalized(now)).isFalse();
+
+        stats.complete(0, -1, true, now);
+
+        assertThat(stats.isPenalized(now + PENALTY - 1)).isTrue();
+        assertThat(stats.isPenalized(now + PENALTY)).isFalse();
+    }
+
+    @Test
+    void abandonedCallOnlyCountsWhenAlreadySlowerThanTheAverage() {
+        stats.complete(0, TimeUnit.MILLISECONDS.toNanos(100), false, now);
+
+        stats.abandon(0, TimeUnit.MILLISECONDS.toNanos(20), now);
+        assertThat(stats.cost(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        stats.abandon(0, TimeUnit.MILLISECONDS.toNanos(300), now);
+        assertThat(stats.cost(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+    }
+}
@@ -0,0 +1,37 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LatencyAwareLoadBalancerConfigurationTest {
+
+    // Contexte d'un client load-balancer, tel que le crée LoadBalancerClientFactory pour album-ws
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(LatencyAwareLoadBalancerConfiguration.class)
+            .withBean(LoadBalancerClientFactory.class, () -> mock(LoadBalancerClientFactory.class))
+            .withPropertyValues(LoadBalancerClientFactory.PROPERTY_NAME + "=album-ws");
+
+    @Test
+    void clientContextGetsAPeakEwmaLoadBalancerBoundToTheServiceSettings() {
+        runner.withPropertyValues("application.load-balancer.decay-time=3s",
+                        "application.load-balancer.failure-penalty=1s")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(PeakEwmaLoadBalancer.class);
+                    LoadBalancerSettings settings = context.getBean(LoadBalancerSettings.class);
+                    assertThat(settings.getDecayTime()).isEqualTo(Duration.ofSeconds(3));
+                    assertThat(settings.getFailurePenalty()).isEqualTo(Duration.ofSeconds(1));
+                });
+    }
+
+    @Test
+    void disabledLoadBalancerFallsBackToRoundRobin() {
+        runner.withPropertyValues("application.load-balancer.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(PeakEwmaLoadBalancer.class));
+    }
+}
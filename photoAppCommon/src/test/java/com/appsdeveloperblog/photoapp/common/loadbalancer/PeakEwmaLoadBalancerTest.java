@@ -0,0 +1,134 @@
+package com.appsdeveloperblog.photoapp.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeakEwmaLoadBalancerTest {
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "album-ws", "fast", 8080, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "album-ws", "slow", 8080, false);
+    private final PeakEwmaLoadBalancer loadBalancer = loadBalancer(List.of(fast, slow));
+
+    @Test
+    void lessLoadedInstanceWins() throws InterruptedException {
+        call(slow, 50, CompletionContext.Status.SUCCESS);
+        call(fast, 1, CompletionContext.Status.SUCCESS);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(chosen()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    void failedInstanceLosesDuringItsPenalty() throws InterruptedException {
+        call(fast, 1, CompletionContext.Status.FAILED);
+        call(slow, 50, CompletionContext.Status.SUCCESS);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(chosen()).isEqualTo(slow);
+        }
+    }
+
+    @Test
+    void inFlightCallsAreReleasedWhenCompletedOrDiscarded() {
+        List<Request<Object>> inFlight = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Request<Object> request = request();
+            loadBalancer.onStartRequest(request, new DefaultResponse(fast));
+            inFlight.add(request);
+        }
+        assertThat(outstanding(fast)).isEqualTo(10);
+
+        for (int i = 0; i < inFlight.size(); i++) {
+            CompletionContext.Status status = i % 2 == 0 ? CompletionContext.Status.SUCCESS : CompletionContext.Status.DISCARD;
+            loadBalancer.onComplete(new CompletionContext<>(status, inFlight.get(i), new DefaultResponse(fast)));
+        }
+
+        assertThat(outstanding(fast)).isZero();
+    }
+
+    @Test
+    void secondAttemptOfAHedgeGroupAvoidsTheFirstInstance() {
+        for (int i = 0; i < 20; i++) {
+            Request<Object> hedged = hedgedRequest("gateway-" + i);
+            ServiceInstance first = loadBalancer.choose(hedged).block(Duration.ofSeconds(1)).getServer();
+            ServiceInstance second = loadBalancer.choose(hedged).block(Duration.ofSeconds(1)).getServer();
+
+            assertThat(second).isNotEqualTo(first);
+        }
+    }
+
+    @Test
+    void feignAttemptsCarryTheirGroupOnTheCallingThread() {
+        for (int i = 0; i < 20; i++) {
+            String group = "feign-" + i;
+            ServiceInstance first = HedgeGroup.call(group, this::chosen);
+            ServiceInstance second = HedgeGroup.call(group, this::chosen);
+
+            assertThat(second).isNotEqualTo(first);
+        }
+        assertThat(HedgeGroup.of(request())).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int outstanding(ServiceInstance instance) {
+        Map<String, InstanceStats> stats = (Map<String, InstanceStats>) ReflectionTestUtils.getField(loadBalancer, "statsByInstance");
+        return stats.get(instance.getHost() + ":" + instance.getPort()).outstanding(System.nanoTime());
+    }
+
+    private ServiceInstance chosen() {
+        Response<ServiceInstance> response = loadBalancer.choose(request()).block(Duration.ofSeconds(1));
+        return response.getServer();
+    }
+
+    private void call(ServiceInstance instance, long millis, CompletionContext.Status status) throws InterruptedException {
+        Request<Object> request = request();
+        loadBalancer.onStartRequest(request, new DefaultResponse(instance));
+        Thread.sleep(millis);
+        loadBalancer.onComplete(new CompletionContext<>(status, request, new DefaultResponse(instance)));
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new RequestDataContext());
+    }
+
+    private static Request<Object> hedgedRequest(String group) {
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET, URI.create("http://album-ws/"),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), Map.of(HedgeGroup.ATTRIBUTE, group))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PeakEwmaLoadBalancer loadBalancer(List<ServiceInstance> instances) {
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any())).thenReturn(Flux.just(instances));
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        return new PeakEwmaLoadBalancer(provider, "album-ws", Duration.ofSeconds(10), Duration.ofSeconds(5));
+    }
+}
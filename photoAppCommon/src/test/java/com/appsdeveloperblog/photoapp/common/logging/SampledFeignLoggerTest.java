@@ -0,0 +1,32 @@
+package com.appsdeveloperblog.photoapp.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledFeignLoggerTest {
+
+    private final SampledFeignLogger logger = new SampledFeignLogger(SampledFeignLoggerTest.class, 1.0, 4);
+
+    @Test
+    void shortBodyIsKeptWhole() {
+        assertThat(logger.truncate("abc".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8)).isEqualTo("abc");
+    }
+
+    @Test
+    void truncationDoesNotSplitAMultibyteCharacter() {
+        // "aééz" : a (1 octet) + é (2 octets) + é (2 octets) + z ; la limite de 4 octets tombe au milieu du second é
+        byte[] body = "aééz".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(logger.truncate(body, StandardCharsets.UTF_8)).isEqualTo("aé... (3 more bytes)");
+    }
+
+    @Test
+    void truncationOnACharacterBoundaryKeepsAllBytes() {
+        byte[] body = "abcdef".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(logger.truncate(body, StandardCharsets.UTF_8)).isEqualTo("abcd... (2 more bytes)");
+    }
+}
@@ -0,0 +1,50 @@
+package com.appsdeveloperblog.photoapp.common.observation;
+
+import com.appsdeveloperblog.photoapp.common.observation.port.in.SamplePortIn;
+import com.appsdeveloperblog.photoapp.common.observation.port.out.SamplePortOut;
+import feign.micrometer.FeignContext;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PortObservationAdvisorTest {
+
+    @SuppressWarnings("unchecked")
+    private final PortObservationAdvisor advisor = new PortObservationAdvisor(
+            "com.appsdeveloperblog.photoapp.common.observation.port", mock(ObjectProvider.class), mock(ObjectProvider.class));
+
+    @Test
+    void portsAreResolvedFromTheConfiguredPackage() throws Exception {
+        assertThat(advisor.layerOf(SamplePortIn.class.getMethod("find", long.class), InAdapter.class)).isEqualTo(PortLayer.PORT_IN);
+        assertThat(advisor.layerOf(SamplePortOut.class.getMethod("save", String.class), OutAdapter.class)).isEqualTo(PortLayer.PORT_OUT);
+        assertThat(advisor.matches(Object.class.getMethod("toString"), InAdapter.class)).isFalse();
+    }
+
+    @Test
+    void feignObservationsCarryTheLayerKey() {
+        FeignContext feignContext = new FeignContext(null);
+        Observation.Context otherContext = new Observation.Context();
+
+        new FeignLayerObservationFilter().map(feignContext);
+        new FeignLayerObservationFilter().map(otherContext);
+
+        assertThat(feignContext.getLowCardinalityKeyValue("layer").getValue()).isEqualTo("feign");
+        assertThat(otherContext.getLowCardinalityKeyValue("layer")).isNull();
+    }
+
+    static class InAdapter implements SamplePortIn {
+        @Override
+        public String find(long id) {
+            return null;
+        }
+    }
+
+    static class OutAdapter implements SamplePortOut {
+        @Override
+        public void save(String value) {
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.appsdeveloperblog.photoapp.common.observation.port.in;
+
+public interface SamplePortIn {
+
+    String find(long id);
+}
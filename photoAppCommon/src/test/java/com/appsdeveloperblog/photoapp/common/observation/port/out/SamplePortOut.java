@@ -0,0 +1,6 @@
+package com.appsdeveloperblog.photoapp.common.observation.port.out;
+
+public interface SamplePortOut {
+
+    void save(String value);
+}
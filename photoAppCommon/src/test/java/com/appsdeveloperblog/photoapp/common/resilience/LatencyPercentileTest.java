@@ -0,0 +1,66 @@
+package com.appsdeveloperblog.photoapp.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyPercentileTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void unknownUntilEnoughSamples() {
+        LatencyPercentile percentile = new LatencyPercentile(0.95, WINDOW);
+        for (int i = 0; i < 19; i++) {
+            percentile.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(percentile.valueNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    void quantileIsTheUpperBoundOfItsBucket() {
+        LatencyPercentile percentile = new LatencyPercentile(0.95, WINDOW);
+        for (int i = 0; i < 95; i++) {
+            percentile.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        for (int i = 0; i < 5; i++) {
+            percentile.record(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        // Seaux de 10 % : la valeur rendue dépasse la mesure d'au plus un seau
+        assertThat(percentile.valueNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10))
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(11));
+    }
+
+    @Test
+    void slowTailMovesTheQuantile() {
+        LatencyPercentile percentile = new LatencyPercentile(0.5, WINDOW);
+        for (int i = 0; i < 10; i++) {
+            percentile.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        for (int i = 0; i < 30; i++) {
+            percentile.record(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        assertThat(percentile.valueNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200))
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(221));
+    }
+
+    @Test
+    void samplesOlderThanTwoWindowsAreForgotten() throws InterruptedException {
+        LatencyPercentile percentile = new LatencyPercentile(0.5, TimeUnit.MILLISECONDS.toNanos(100));
+        for (int i = 0; i < 20; i++) {
+            percentile.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // Plus de deux fenêtres sans mesure ; premier calcul, pas encore de valeur en cache
+        TimeUnit.MILLISECONDS.sleep(250);
+
+        assertThat(percentile.valueNanos()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.appsdeveloperblog.photoapp.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void retriesAreBoundedByTheRatioOfRequests() {
+        RetryBudget budget = new RetryBudget("album-ws", 10);
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        int granted = 0;
+        while (budget.tryRetry(0.1, 0)) {
+            granted++;
+        }
+
+        assertThat(granted).isEqualTo(10);
+        assertThat(budget.snapshot(0.1, 0)).isEqualTo(new RetryBudget.Snapshot(100, 10, 10));
+    }
+
+    @Test
+    void floorAllowsRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget("album-ws", 10);
+
+        assertThat(budget.canRetry(0.1, 1)).isTrue();
+        // Plancher d'une par seconde sur la fenêtre de 10 s
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryRetry(0.1, 1)).isTrue();
+        }
+        assertThat(budget.tryRetry(0.1, 1)).isFalse();
+    }
+
+    @Test
+    void canRetryDoesNotDebitTheBudget() {
+        RetryBudget budget = new RetryBudget("album-ws", 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+
+        assertThat(budget.canRetry(0.1, 0)).isTrue();
+        assertThat(budget.canRetry(0.1, 0)).isTrue();
+        budget.recordRetry();
+        assertThat(budget.canRetry(0.1, 0)).isFalse();
+        assertThat(budget.snapshot(0.1, 0).utilization()).isEqualTo(1.0);
+    }
+}